@@ -26,4 +26,12 @@ public @interface Traced {
 
   String operationName() default "";
 
+  /**
+   * Minimum duration for the span to be reported, e.g. {@code 10ms} or {@code PT0.5S}. Faster spans
+   * are marked with {@code sampling.priority=0} unless they failed or have a reported child span of
+   * a tracing aspect. Defaults to
+   * {@code opentracing.spring.cloud.traced.min-duration}.
+   */
+  String minDuration() default "";
+
 }
@@ -0,0 +1,90 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations with power of two microsecond buckets. Recording is a couple of
+ * atomic increments, percentiles are approximated by the upper bound of their bucket.
+ */
+public class LatencyHistogram {
+
+  /**
+   * Bucket {@code i > 0} counts durations in {@code [2^(i-1), 2^i)} microseconds, bucket 0 those
+   * under a microsecond and the last one everything longer.
+   */
+  private static final int BUCKETS = 40;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  public void record(long duration, TimeUnit unit) {
+    long nanos = Math.max(0, unit.toNanos(duration));
+    long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+    int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    buckets.incrementAndGet(bucket);
+    count.increment();
+    totalNanos.add(nanos);
+    long max = maxNanos.get();
+    while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+      max = maxNanos.get();
+    }
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public Duration getMean() {
+    long count = getCount();
+    return Duration.ofNanos(count == 0 ? 0 : totalNanos.sum() / count);
+  }
+
+  public Duration getMax() {
+    return Duration.ofNanos(maxNanos.get());
+  }
+
+  /**
+   * @param quantile quantile between 0 and 1, e.g. 0.99
+   * @return upper bound of the bucket containing the quantile, capped by the maximum
+   */
+  public Duration getPercentile(double quantile) {
+    long[] counts = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets.get(i);
+      total += counts[i];
+    }
+    if (total == 0) {
+      return Duration.ZERO;
+    }
+    long rank = (long) Math.ceil(quantile * total);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS - 1; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        Duration upperBound = Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(1L << i));
+        return upperBound.compareTo(getMax()) < 0 ? upperBound : getMax();
+      }
+    }
+    return getMax();
+  }
+}
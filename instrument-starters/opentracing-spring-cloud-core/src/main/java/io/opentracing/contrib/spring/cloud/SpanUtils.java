@@ -14,9 +14,7 @@
 package io.opentracing.contrib.spring.cloud;
 
 import io.opentracing.Span;
-import io.opentracing.tag.Tags;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
 
 /**
  * @author Pavol Loffay
@@ -27,16 +25,13 @@ public class SpanUtils {
   }
 
   /**
-   * Add appropriate error tags and logs to a span when an exception occurs
+   * Add appropriate error tags and logs to a span when an exception occurs. The exception is
+   * logged every time, instrumentations use the injected {@link ErrorCapture} to deduplicate it.
    *
    * @param span the span "monitoring" the code which threw the exception
    * @param ex captured exception
    */
   public static void captureException(Span span, Exception ex) {
-    Map<String, Object> exceptionLogs = new LinkedHashMap<>(2);
-    exceptionLogs.put("event", Tags.ERROR.getKey());
-    exceptionLogs.put("error.object", ex);
-    span.log(exceptionLogs);
-    Tags.ERROR.set(span, true);
+    ErrorCapture.noDeduplication().capture(span, ex);
   }
 }
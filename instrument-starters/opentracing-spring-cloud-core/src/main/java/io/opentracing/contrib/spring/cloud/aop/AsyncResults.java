@@ -0,0 +1,94 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.aop;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+
+/**
+ * Lets spans of methods returning asynchronous results ({@link CompletionStage}, {@link
+ * ListenableFuture}, {@code Mono} and {@code Flux}) be finished when the result completes rather
+ * than when the method returns. Completion callbacks run on the completing thread, there is no
+ * blocking and no additional thread hop.
+ */
+final class AsyncResults {
+
+  private static final boolean REACTOR_PRESENT =
+      ClassUtils.isPresent("reactor.core.publisher.Mono", AsyncResults.class.getClassLoader());
+
+  private AsyncResults() {
+  }
+
+  static boolean isAsync(Class<?> returnType) {
+    if (returnType == null) {
+      return false;
+    }
+    return CompletionStage.class.isAssignableFrom(returnType)
+        || ListenableFuture.class.isAssignableFrom(returnType)
+        || (REACTOR_PRESENT && ReactorResults.isReactive(returnType));
+  }
+
+  static boolean isReactive(Class<?> returnType) {
+    return returnType != null && REACTOR_PRESENT && ReactorResults.isReactive(returnType);
+  }
+
+  /**
+   * Calls {@code onSubscribe} for every subscription to the reactive result and the callback it
+   * returns once that subscription completes, with the failure or {@code null}.
+   *
+   * @return the decorated result to hand back to the caller
+   */
+  static Object onSubscribe(Object result, Supplier<Consumer<Throwable>> onSubscribe) {
+    return ReactorResults.onSubscribe(result, onSubscribe);
+  }
+
+  /**
+   * Arranges {@code onCompletion} to be called exactly once when the result completes, with the
+   * failure or {@code null}.
+   *
+   * @return the result to hand back to the caller, reactive types are decorated
+   */
+  static Object onCompletion(Object result, Consumer<Throwable> onCompletion) {
+    if (result instanceof CompletionStage) {
+      ((CompletionStage<?>) result).whenComplete((value, ex) -> onCompletion.accept(unwrap(ex)));
+      return result;
+    } else if (result instanceof ListenableFuture) {
+      ((ListenableFuture<?>) result).addCallback(new ListenableFutureCallback<Object>() {
+        @Override
+        public void onSuccess(Object value) {
+          onCompletion.accept(null);
+        }
+
+        @Override
+        public void onFailure(Throwable ex) {
+          onCompletion.accept(ex);
+        }
+      });
+      return result;
+    } else if (REACTOR_PRESENT && ReactorResults.isReactive(result.getClass())) {
+      return ReactorResults.onTermination(result, onCompletion);
+    }
+    onCompletion.accept(null);
+    return result;
+  }
+
+  private static Throwable unwrap(Throwable ex) {
+    return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+  }
+}
@@ -19,8 +19,13 @@ import io.opentracing.Tracer;
 import io.opentracing.contrib.spring.cloud.ExtensionTags;
 import io.opentracing.tag.Tags;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
@@ -34,13 +39,22 @@ public abstract class BaseTracingAspect {
   private final Class<? extends Annotation> annotation;
   private final List<MethodInterceptorSpanDecorator> decorators;
   private Pattern skipPattern;
+  private final MethodSpanSampler sampler;
+  private final ConcurrentMap<Class<?>, ConcurrentMap<Method, MethodSpanMetadata>> metadataCache =
+      new ConcurrentHashMap<>();
 
   public BaseTracingAspect(Tracer tracer, List<MethodInterceptorSpanDecorator> decorators,
       Class<? extends Annotation> annotation, Pattern skipPattern) {
+    this(tracer, decorators, annotation, skipPattern, null);
+  }
+
+  public BaseTracingAspect(Tracer tracer, List<MethodInterceptorSpanDecorator> decorators,
+      Class<? extends Annotation> annotation, Pattern skipPattern, MethodSpanSampler sampler) {
     this.tracer = tracer;
     this.decorators = decorators != null ? decorators : new ArrayList<>();
     this.annotation = annotation;
     this.skipPattern = skipPattern;
+    this.sampler = sampler;
   }
 
   /**
@@ -50,32 +64,237 @@ public abstract class BaseTracingAspect {
   public abstract Object trace(ProceedingJoinPoint pjp) throws Throwable;
 
   protected Object internalTrace(ProceedingJoinPoint pjp) throws Throwable {
-    if (skipPattern.matcher(pjp.getTarget().getClass().getName()).matches()) {
+    MethodSpanMetadata metadata = getMetadata(pjp);
+    if (metadata.isSkipped()) {
       return pjp.proceed();
     }
+    if (metadata.isReactiveResult()) {
+      return traceReactive(pjp, metadata);
+    }
+    if (metadata.getSampler() != null && !metadata.getSampler().sample()) {
+      return proceedUnsampled(pjp, metadata);
+    }
 
-    // operation name is method name
-    Span span = tracer.buildSpan(getOperationName(pjp))
-        .withTag(Tags.COMPONENT.getKey(), getComponent(pjp))
-        .withTag(ExtensionTags.CLASS_TAG.getKey(), pjp.getTarget().getClass().getSimpleName())
-        .withTag(ExtensionTags.METHOD_TAG.getKey(), pjp.getSignature().getName())
-        .start();
-
-    try {
-      try (Scope scope = tracer.activateSpan(span)) {
+    final MinDurationFrame parentFrame = MinDurationFrame.current();
+    Span span = startSpan(metadata, tracer.activeSpan());
+    MinDurationFrame frame = null;
+    long startNanos = 0;
+    boolean finishSpan = true;
+    boolean failed = false;
+    try (Scope scope = tracer.activateSpan(span)) {
+      if (metadata.getMinDurationNanos() > 0) {
+        frame = MinDurationFrame.enter();
+        startNanos = System.nanoTime();
+      }
+      try {
         decoratePreProceed(pjp, span);
         Object result = pjp.proceed();
         decoratePostProceed(pjp, span, result);
+        if (metadata.isAsyncResult() && result != null) {
+          final MinDurationFrame asyncFrame = frame;
+          final long asyncStartNanos = startNanos;
+          Object tracedResult = AsyncResults.onCompletion(result, ex -> {
+            try {
+              if (ex != null) {
+                decorateOnFailure(pjp, span, ex);
+              }
+            } finally {
+              finish(span, parentFrame, metadata, asyncFrame, asyncStartNanos, ex != null);
+            }
+          });
+          finishSpan = false;
+          return tracedResult;
+        }
         return result;
+      } finally {
+        if (frame != null) {
+          frame.exit();
+        }
       }
     } catch (Exception ex) {
+      failed = true;
       decorateOnError(pjp, span, ex);
       throw ex;
     } finally {
+      if (finishSpan) {
+        finish(span, parentFrame, metadata, frame, startNanos, failed);
+      }
+    }
+  }
+
+  /**
+   * Methods returning a {@code Mono} or a {@code Flux} only assemble the work. Their span is started
+   * for every subscription and finished when it terminates, as a child of the span active when the
+   * method was called. A publisher which is never subscribed to creates no span.
+   */
+  private Object traceReactive(ProceedingJoinPoint pjp, MethodSpanMetadata metadata)
+      throws Throwable {
+    Span parent = tracer.activeSpan();
+    MinDurationFrame parentFrame = MinDurationFrame.current();
+    Object result;
+    try {
+      result = pjp.proceed();
+    } catch (Exception ex) {
+      Span span = startSpan(metadata, parent);
+      try {
+        decoratePreProceed(pjp, span);
+        decorateOnError(pjp, span, ex);
+      } finally {
+        finish(span, parentFrame, metadata, null, 0, true);
+      }
+      throw ex;
+    }
+    if (result == null) {
+      return null;
+    }
+    return AsyncResults.onSubscribe(result, () -> {
+      if (metadata.getSampler() != null && !metadata.getSampler().sample()) {
+        long startNanos = System.nanoTime();
+        return ex -> {
+          if (ex != null) {
+            reportFailure(pjp, metadata, parent, parentFrame, startNanos, ex);
+          }
+        };
+      }
+      Span span = startSpan(metadata, parent);
+      // never active, so no child can keep it
+      MinDurationFrame frame = metadata.getMinDurationNanos() > 0 ? MinDurationFrame.detached() : null;
+      long startNanos = frame != null ? System.nanoTime() : 0;
+      decoratePreProceed(pjp, span);
+      decoratePostProceed(pjp, span, result);
+      return ex -> {
+        try {
+          if (ex != null) {
+            decorateOnFailure(pjp, span, ex);
+          }
+        } finally {
+          finish(span, parentFrame, metadata, frame, startNanos, ex != null);
+        }
+      };
+    });
+  }
+
+  private Span startSpan(MethodSpanMetadata metadata, Span parent) {
+    return startSpan(spanBuilder(metadata), parent);
+  }
+
+  private Span startSpan(Tracer.SpanBuilder spanBuilder, Span parent) {
+    if (parent != null) {
+      spanBuilder.asChildOf(parent);
+    } else {
+      spanBuilder.ignoreActiveSpan();
+    }
+    return spanBuilder.start();
+  }
+
+  private Tracer.SpanBuilder spanBuilder(MethodSpanMetadata metadata) {
+    return tracer.buildSpan(metadata.getOperationName())
+        .withTag(Tags.COMPONENT.getKey(), metadata.getComponent())
+        .withTag(ExtensionTags.CLASS_TAG.getKey(), metadata.getClassName())
+        .withTag(ExtensionTags.METHOD_TAG.getKey(), metadata.getMethodName());
+  }
+
+  /**
+   * Proceeds without a span, which is only created afterwards when the invocation fails.
+   */
+  private Object proceedUnsampled(ProceedingJoinPoint pjp, MethodSpanMetadata metadata)
+      throws Throwable {
+    Span parent = tracer.activeSpan();
+    MinDurationFrame parentFrame = MinDurationFrame.current();
+    long startNanos = System.nanoTime();
+    try {
+      Object result = pjp.proceed();
+      if (metadata.isAsyncResult() && result != null) {
+        return AsyncResults.onCompletion(result, ex -> {
+          if (ex != null) {
+            reportFailure(pjp, metadata, parent, parentFrame, startNanos, ex);
+          }
+        });
+      }
+      return result;
+    } catch (Exception ex) {
+      reportFailure(pjp, metadata, parent, parentFrame, startNanos, ex);
+      throw ex;
+    }
+  }
+
+  /**
+   * Reports the failure of an unsampled invocation. Results may fail on another thread, the span is
+   * a child of the span active when the method was called rather than of the current one.
+   */
+  private void reportFailure(ProceedingJoinPoint pjp, MethodSpanMetadata metadata, Span parent,
+      MinDurationFrame parentFrame, long startNanos, Throwable ex) {
+    long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    Span span = startSpan(spanBuilder(metadata).withStartTimestamp(currentTimeMicros() - elapsedMicros),
+        parent);
+    try {
+      decoratePreProceed(pjp, span);
+      decorateOnFailure(pjp, span, ex);
+    } finally {
+      finish(span, parentFrame, metadata, null, 0, true);
+    }
+  }
+
+  private static long currentTimeMicros() {
+    return TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+  }
+
+  /**
+   * Finishes the span. Spans faster than the minimum duration of the method are marked with
+   * {@code sampling.priority=0} before being finished, unless they failed or have a reported child
+   * span of a tracing aspect, so that the tracer can drop them.
+   */
+  private static void finish(Span span, MinDurationFrame parentFrame, MethodSpanMetadata metadata,
+      MinDurationFrame frame, long startNanos, boolean failed) {
+    if (frame != null && !failed && !frame.hasReportedChild()
+        && System.nanoTime() - startNanos < metadata.getMinDurationNanos()) {
+      Tags.SAMPLING_PRIORITY.set(span, 0);
       span.finish();
+      return;
+    }
+    span.finish();
+    if (parentFrame != null) {
+      parentFrame.childReported();
     }
   }
 
+  /**
+   * Returns span metadata of the intercepted method, resolving it on the first invocation of the
+   * method on a given target class.
+   */
+  protected MethodSpanMetadata getMetadata(ProceedingJoinPoint pjp) {
+    Class<?> targetClass = pjp.getTarget().getClass();
+    Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+    ConcurrentMap<Method, MethodSpanMetadata> methods = metadataCache.get(targetClass);
+    if (methods == null) {
+      methods = metadataCache.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>());
+    }
+    MethodSpanMetadata metadata = methods.get(method);
+    if (metadata == null) {
+      metadata = resolveMetadata(pjp, targetClass);
+      methods.putIfAbsent(method, metadata);
+    }
+    return metadata;
+  }
+
+  protected MethodSpanMetadata resolveMetadata(ProceedingJoinPoint pjp, Class<?> targetClass) {
+    if (skipPattern.matcher(targetClass.getName()).matches()) {
+      return MethodSpanMetadata.skipped();
+    }
+    // operation name is method name
+    Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+    String operationName = getOperationName(pjp);
+    return MethodSpanMetadata.of(operationName, getComponent(pjp),
+        MethodSpanMetadata.simpleName(targetClass), pjp.getSignature().getName(),
+        AsyncResults.isAsync(method.getReturnType()), AsyncResults.isReactive(method.getReturnType()),
+        toNanos(getMinDuration(pjp)),
+        sampler != null ? sampler.forMethod(operationName, method) : null);
+  }
+
+  private static long toNanos(Duration duration) {
+    return duration != null && !duration.isNegative() ? duration.toNanos() : 0;
+  }
+
   protected void decoratePreProceed(ProceedingJoinPoint pjp, Span span) {
     for (MethodInterceptorSpanDecorator spanDecorator : decorators) {
       try {
@@ -102,6 +321,14 @@ public abstract class BaseTracingAspect {
     }
   }
 
+  private void decorateOnFailure(ProceedingJoinPoint pjp, Span span, Throwable ex) {
+    if (ex instanceof Exception) {
+      decorateOnError(pjp, span, (Exception) ex);
+    } else {
+      Tags.ERROR.set(span, true);
+    }
+  }
+
   protected String getOperationName(ProceedingJoinPoint pjp) {
     return ((MethodSignature) pjp.getSignature()).getMethod().getName();
   }
@@ -110,6 +337,14 @@ public abstract class BaseTracingAspect {
     return annotation.getSimpleName().toLowerCase();
   }
 
+  /**
+   * Spans of the method finishing faster than this are marked with {@code sampling.priority=0}
+   * unless they failed or have a reported child span, {@code null} to report every span.
+   */
+  protected Duration getMinDuration(ProceedingJoinPoint pjp) {
+    return null;
+  }
+
   protected boolean shouldTrace(ProceedingJoinPoint pjp) {
     return true;
   }
@@ -15,7 +15,7 @@ package io.opentracing.contrib.spring.cloud.aop;
 
 import io.opentracing.Span;
 import io.opentracing.contrib.spring.cloud.ExtensionTags;
-import io.opentracing.contrib.spring.cloud.SpanUtils;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
 
@@ -59,9 +59,19 @@ public interface MethodInterceptorSpanDecorator {
    */
   class StandardTags implements MethodInterceptorSpanDecorator {
 
+    private final ErrorCapture errorCapture;
+
+    public StandardTags() {
+      this(ErrorCapture.noDeduplication());
+    }
+
+    public StandardTags(ErrorCapture errorCapture) {
+      this.errorCapture = errorCapture;
+    }
+
     @Override
     public void onPreProceed(ProceedingJoinPoint pjp, Span span) {
-      ExtensionTags.CLASS_TAG.set(span, pjp.getTarget().getClass().getSimpleName());
+      ExtensionTags.CLASS_TAG.set(span, MethodSpanMetadata.simpleName(pjp.getTarget().getClass()));
       ExtensionTags.METHOD_TAG.set(span, ((MethodSignature) pjp.getSignature()).getName());
     }
 
@@ -71,7 +81,7 @@ public interface MethodInterceptorSpanDecorator {
 
     @Override
     public void onError(ProceedingJoinPoint pjp, Exception ex, Span span) {
-      SpanUtils.captureException(span, ex);
+      errorCapture.capture(span, ex);
     }
   }
 }
@@ -0,0 +1,142 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.aop;
+
+/**
+ * Span metadata of an intercepted method. It is resolved once per target class and method by
+ * {@link BaseTracingAspect} and reused for every subsequent invocation.
+ */
+public final class MethodSpanMetadata {
+
+  private static final MethodSpanMetadata SKIPPED = new MethodSpanMetadata(true, null, null, null, null, false,
+      false, 0, null);
+
+  private static final ClassValue<String> SIMPLE_NAMES = new ClassValue<String>() {
+    @Override
+    protected String computeValue(Class<?> type) {
+      return type.getSimpleName();
+    }
+  };
+
+  private final boolean skipped;
+  private final String operationName;
+  private final String component;
+  private final String className;
+  private final String methodName;
+  private final boolean asyncResult;
+  private final boolean reactiveResult;
+  private final long minDurationNanos;
+  private final MethodSpanSampler.Sampler sampler;
+
+  private MethodSpanMetadata(boolean skipped, String operationName, String component,
+      String className, String methodName, boolean asyncResult, boolean reactiveResult,
+      long minDurationNanos, MethodSpanSampler.Sampler sampler) {
+    this.skipped = skipped;
+    this.operationName = operationName;
+    this.component = component;
+    this.className = className;
+    this.methodName = methodName;
+    this.asyncResult = asyncResult;
+    this.reactiveResult = reactiveResult;
+    this.minDurationNanos = minDurationNanos;
+    this.sampler = sampler;
+  }
+
+  public static MethodSpanMetadata skipped() {
+    return SKIPPED;
+  }
+
+  public static MethodSpanMetadata of(String operationName, String component, String className,
+      String methodName, boolean asyncResult) {
+    return of(operationName, component, className, methodName, asyncResult, 0);
+  }
+
+  public static MethodSpanMetadata of(String operationName, String component, String className,
+      String methodName, boolean asyncResult, long minDurationNanos) {
+    return of(operationName, component, className, methodName, asyncResult, minDurationNanos,
+        null);
+  }
+
+  public static MethodSpanMetadata of(String operationName, String component, String className,
+      String methodName, boolean asyncResult, long minDurationNanos,
+      MethodSpanSampler.Sampler sampler) {
+    return of(operationName, component, className, methodName, asyncResult, false,
+        minDurationNanos, sampler);
+  }
+
+  public static MethodSpanMetadata of(String operationName, String component, String className,
+      String methodName, boolean asyncResult, boolean reactiveResult, long minDurationNanos,
+      MethodSpanSampler.Sampler sampler) {
+    return new MethodSpanMetadata(false, operationName, component, className, methodName,
+        asyncResult, reactiveResult, minDurationNanos, sampler);
+  }
+
+  /**
+   * Cached {@link Class#getSimpleName()}, which is recomputed on every call on older JDKs.
+   */
+  static String simpleName(Class<?> type) {
+    return SIMPLE_NAMES.get(type);
+  }
+
+  public boolean isSkipped() {
+    return skipped;
+  }
+
+  public String getOperationName() {
+    return operationName;
+  }
+
+  public String getComponent() {
+    return component;
+  }
+
+  public String getClassName() {
+    return className;
+  }
+
+  public String getMethodName() {
+    return methodName;
+  }
+
+  /**
+   * Whether the method returns a future or a publisher, its span is then finished when the result
+   * completes.
+   */
+  public boolean isAsyncResult() {
+    return asyncResult;
+  }
+
+  /**
+   * Whether the method returns a {@code Mono} or a {@code Flux}, its span is then started when the
+   * result is subscribed to rather than when the method is called.
+   */
+  public boolean isReactiveResult() {
+    return reactiveResult;
+  }
+
+  /**
+   * Spans finishing faster than this are not reported unless they failed or have reported child
+   * spans, {@code 0} when every span is reported.
+   */
+  public long getMinDurationNanos() {
+    return minDurationNanos;
+  }
+
+  /**
+   * Sampler consulted on every invocation, {@code null} when every invocation is traced.
+   */
+  public MethodSpanSampler.Sampler getSampler() {
+    return sampler;
+  }
+}
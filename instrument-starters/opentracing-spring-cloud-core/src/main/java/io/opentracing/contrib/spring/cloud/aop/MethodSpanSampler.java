@@ -0,0 +1,41 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * Decides which invocations of methods intercepted by {@link BaseTracingAspect} get a span.
+ * Invocations which are not sampled do not start a span, but failing ones are still reported.
+ */
+public interface MethodSpanSampler {
+
+  /**
+   * Creates the sampler of an intercepted method. It is called once per target class and method
+   * when the span metadata is resolved.
+   *
+   * @param operationName operation name of the method spans
+   * @param method intercepted method
+   * @return sampler consulted on every invocation of the method
+   */
+  Sampler forMethod(String operationName, Method method);
+
+  interface Sampler {
+
+    /**
+     * @return whether the invocation should be traced
+     */
+    boolean sample();
+  }
+}
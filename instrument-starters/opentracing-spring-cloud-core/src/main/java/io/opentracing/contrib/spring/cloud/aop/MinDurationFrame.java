@@ -0,0 +1,83 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.aop;
+
+/**
+ * Tracks whether the span of a method subject to a minimum duration got a reported child span
+ * created by a tracing aspect, on the calling thread while the method runs or later when the result
+ * of the child completes. Such spans are reported regardless of their duration so that the children
+ * do not lose their parent.
+ *
+ * <p>The active span is the tracer's own span, spans of other instrumentations are not seen.
+ */
+final class MinDurationFrame {
+
+  private static final ThreadLocal<MinDurationFrame> CURRENT = new ThreadLocal<>();
+
+  /**
+   * Set once the first frame is entered, spans without a minimum duration do not look up the
+   * current frame until then.
+   */
+  private static volatile boolean used;
+
+  private final MinDurationFrame outer;
+  private volatile boolean childReported;
+
+  private MinDurationFrame(MinDurationFrame outer) {
+    this.outer = outer;
+  }
+
+  /**
+   * @return frame of the innermost method subject to a minimum duration running on the calling
+   *     thread, {@code null} if none
+   */
+  static MinDurationFrame current() {
+    return used ? CURRENT.get() : null;
+  }
+
+  /**
+   * Makes a new frame current on the calling thread until {@link #exit()}.
+   */
+  static MinDurationFrame enter() {
+    if (!used) {
+      used = true;
+    }
+    MinDurationFrame frame = new MinDurationFrame(CURRENT.get());
+    CURRENT.set(frame);
+    return frame;
+  }
+
+  /**
+   * @return frame which is never current, for spans which are never active
+   */
+  static MinDurationFrame detached() {
+    return new MinDurationFrame(null);
+  }
+
+  void exit() {
+    if (outer == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(outer);
+    }
+  }
+
+  void childReported() {
+    childReported = true;
+  }
+
+  boolean hasReportedChild() {
+    return childReported;
+  }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.aop;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the number of spans per second of each intercepted method with a token bucket. Every method
+ * gets its own bucket, held by the span metadata {@link BaseTracingAspect} caches per target class
+ * and method, so invocations of different methods do not contend and an invocation costs a single
+ * compare-and-set.
+ *
+ * <p>The first invocations of a method are always sampled so that rarely called methods show up
+ * right away.
+ */
+public class RateLimitingMethodSpanSampler implements MethodSpanSampler {
+
+  private final double maxSpansPerSecond;
+  private final int initialSpans;
+
+  /**
+   * @param maxSpansPerSecond maximum spans per second per method, bursts of up to one second worth
+   *     of spans are allowed
+   * @param initialSpans number of first invocations of each method which are always sampled
+   */
+  public RateLimitingMethodSpanSampler(double maxSpansPerSecond, int initialSpans) {
+    if (maxSpansPerSecond <= 0) {
+      throw new IllegalArgumentException("maxSpansPerSecond must be positive");
+    }
+    this.maxSpansPerSecond = maxSpansPerSecond;
+    this.initialSpans = initialSpans;
+  }
+
+  @Override
+  public Sampler forMethod(String operationName, Method method) {
+    return new TokenBucket(maxSpansPerSecond, initialSpans);
+  }
+
+  /**
+   * Token bucket kept as the theoretical arrival time of the next span (GCRA), a span is sampled
+   * when taking a token does not push it more than the bucket capacity ahead of now.
+   */
+  static final class TokenBucket implements Sampler {
+
+    private final long nanosPerToken;
+    private final long capacityNanos;
+    private final AtomicInteger initialRemaining;
+    private final AtomicLong nextTokenNanos = new AtomicLong(System.nanoTime());
+
+    TokenBucket(double tokensPerSecond, int initialTokens) {
+      this.nanosPerToken = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond));
+      this.capacityNanos = Math.max(1, (long) tokensPerSecond) * nanosPerToken;
+      this.initialRemaining = new AtomicInteger(initialTokens);
+    }
+
+    @Override
+    public boolean sample() {
+      if (initialRemaining.get() > 0 && initialRemaining.getAndDecrement() > 0) {
+        return true;
+      }
+      long now = System.nanoTime();
+      while (true) {
+        long next = nextTokenNanos.get();
+        long updated = (next - now < 0 ? now : next) + nanosPerToken;
+        if (updated - now > capacityNanos) {
+          return false;
+        }
+        if (nextTokenNanos.compareAndSet(next, updated)) {
+          return true;
+        }
+      }
+    }
+  }
+}
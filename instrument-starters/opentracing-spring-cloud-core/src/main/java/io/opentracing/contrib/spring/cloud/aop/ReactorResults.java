@@ -0,0 +1,69 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.aop;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Reactor specific part of {@link AsyncResults}, only loaded when Reactor is on the classpath.
+ */
+final class ReactorResults {
+
+  private ReactorResults() {
+  }
+
+  static boolean isReactive(Class<?> type) {
+    return Mono.class.isAssignableFrom(type) || Flux.class.isAssignableFrom(type);
+  }
+
+  /**
+   * The publisher is deferred, nothing happens until it is subscribed to and every subscription is
+   * tracked on its own.
+   */
+  static Object onSubscribe(Object result, Supplier<Consumer<Throwable>> onSubscribe) {
+    if (result instanceof Mono) {
+      Mono<?> mono = (Mono<?>) result;
+      return Mono.defer(() -> (Mono<?>) onTermination(mono, onSubscribe.get()));
+    }
+    Flux<?> flux = (Flux<?>) result;
+    return Flux.defer(() -> (Flux<?>) onTermination(flux, onSubscribe.get()));
+  }
+
+  /**
+   * Completion is signalled on the first termination or cancellation, later subscriptions to the
+   * same publisher are not tracked.
+   */
+  static Object onTermination(Object result, Consumer<Throwable> onCompletion) {
+    AtomicBoolean completed = new AtomicBoolean();
+    Consumer<Throwable> onError = ex -> {
+      if (completed.compareAndSet(false, true)) {
+        onCompletion.accept(ex);
+      }
+    };
+    Consumer<SignalType> onFinally = signal -> {
+      if (completed.compareAndSet(false, true)) {
+        onCompletion.accept(null);
+      }
+    };
+    if (result instanceof Mono) {
+      return ((Mono<?>) result).doOnError(onError).doFinally(onFinally);
+    }
+    return ((Flux<?>) result).doOnError(onError).doFinally(onFinally);
+  }
+}
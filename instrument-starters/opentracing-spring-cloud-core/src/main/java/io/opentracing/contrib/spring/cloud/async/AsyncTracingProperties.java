@@ -0,0 +1,75 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.async;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("opentracing.spring.cloud.async")
+public class AsyncTracingProperties {
+
+  /**
+   * Enable tracing for @Async, Executor and WebAsyncTask/Callable.
+   */
+  private boolean enabled = true;
+
+  /**
+   * Run @Async methods of the default traced executor on virtual threads instead of starting a
+   * platform thread per call. Requires JDK 21 or newer, ignored otherwise.
+   */
+  private boolean virtualThreads = false;
+
+  /**
+   * Record how long tasks wait in the queue of traced ThreadPoolTaskExecutor and ThreadPoolTaskScheduler
+   * beans, as a histogram per pool and as a child span of the propagated span.
+   */
+  private boolean recordQueueWait = false;
+
+  /**
+   * Queue size of traced ThreadPoolTaskExecutor and ThreadPoolTaskScheduler beans from which the
+   * active span is tagged with the pool state when a task is submitted. 0 disables tagging.
+   */
+  private int queueThreshold = 0;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  public void setVirtualThreads(boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+  }
+
+  public boolean isRecordQueueWait() {
+    return recordQueueWait;
+  }
+
+  public void setRecordQueueWait(boolean recordQueueWait) {
+    this.recordQueueWait = recordQueueWait;
+  }
+
+  public int getQueueThreshold() {
+    return queueThreshold;
+  }
+
+  public void setQueueThreshold(int queueThreshold) {
+    this.queueThreshold = queueThreshold;
+  }
+}
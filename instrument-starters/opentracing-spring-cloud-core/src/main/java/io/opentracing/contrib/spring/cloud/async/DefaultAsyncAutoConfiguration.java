@@ -15,14 +15,20 @@ package io.opentracing.contrib.spring.cloud.async;
 
 import io.opentracing.Tracer;
 import io.opentracing.contrib.concurrent.TracedExecutor;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
 
 import io.opentracing.contrib.spring.tracer.configuration.TracerAutoConfiguration;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -40,6 +46,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 @ConditionalOnBean(Tracer.class)
 @AutoConfigureAfter({CustomAsyncConfigurerAutoConfiguration.class, TracerAutoConfiguration.class})
 @ConditionalOnProperty(name = "opentracing.spring.cloud.async.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(AsyncTracingProperties.class)
 public class DefaultAsyncAutoConfiguration {
 
   @Autowired
@@ -50,24 +57,39 @@ public class DefaultAsyncAutoConfiguration {
   @ConditionalOnMissingBean(AsyncConfigurer.class)
   static class DefaultTracedAsyncConfigurerSupport extends AsyncConfigurerSupport {
 
+    private static final Logger log = LoggerFactory.getLogger(DefaultTracedAsyncConfigurerSupport.class);
+
     @Autowired
     @Lazy
     private Tracer tracer;
 
+    @Autowired
+    private AsyncTracingProperties asyncTracingProperties;
+
     @Override
     public Executor getAsyncExecutor() {
-      return new TracedExecutor(new SimpleAsyncTaskExecutor(), tracer);
+      SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+      if (asyncTracingProperties.isVirtualThreads()) {
+        ThreadFactory threadFactory = VirtualThreads.threadFactory(executor.getThreadNamePrefix());
+        if (threadFactory != null) {
+          executor.setThreadFactory(threadFactory);
+        } else {
+          log.warn("Virtual threads are not supported by this JVM, @Async methods run on platform threads");
+        }
+      }
+      return new TracedExecutor(executor, tracer);
     }
   }
 
   @Bean
-  public ExecutorBeanPostProcessor executorBeanPostProcessor() {
-    return new ExecutorBeanPostProcessor(tracer);
+  public ExecutorBeanPostProcessor executorBeanPostProcessor(AsyncTracingProperties asyncTracingProperties) {
+    return new ExecutorBeanPostProcessor(tracer, asyncTracingProperties.isRecordQueueWait(),
+        asyncTracingProperties.getQueueThreshold());
   }
 
   @Bean
-  public TraceAsyncAspect traceAsyncAspect() {
-    return new TraceAsyncAspect(tracer);
+  public TraceAsyncAspect traceAsyncAspect(ObjectProvider<ErrorCapture> errorCapture) {
+    return new TraceAsyncAspect(tracer, errorCapture.getIfAvailable(ErrorCapture::noDeduplication));
   }
 
   @Bean
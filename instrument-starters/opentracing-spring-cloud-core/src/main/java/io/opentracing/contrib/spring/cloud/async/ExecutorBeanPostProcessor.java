@@ -16,13 +16,19 @@ package io.opentracing.contrib.spring.cloud.async;
 import io.opentracing.Tracer;
 import io.opentracing.contrib.concurrent.TracedExecutor;
 import io.opentracing.contrib.concurrent.TracedExecutorService;
+import io.opentracing.contrib.spring.cloud.async.instrument.ThreadPoolStats;
 import io.opentracing.contrib.spring.cloud.async.instrument.TracedThreadPoolTaskExecutor;
 import io.opentracing.contrib.spring.cloud.async.instrument.TracedThreadPoolTaskScheduler;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.function.BiFunction;
@@ -46,9 +52,25 @@ import org.springframework.util.ReflectionUtils;
  */
 class ExecutorBeanPostProcessor implements BeanPostProcessor {
   private final Tracer tracer;
+  private final boolean recordQueueWait;
+  private final int queueThreshold;
+  /**
+   * Statistics of traced thread pools by bean name.
+   */
+  private final ConcurrentMap<String, ThreadPoolStats> threadPoolStats = new ConcurrentHashMap<>();
 
   ExecutorBeanPostProcessor(Tracer tracer) {
+    this(tracer, false, 0);
+  }
+
+  ExecutorBeanPostProcessor(Tracer tracer, boolean recordQueueWait, int queueThreshold) {
     this.tracer = tracer;
+    this.recordQueueWait = recordQueueWait;
+    this.queueThreshold = queueThreshold;
+  }
+
+  Map<String, ThreadPoolStats> getThreadPoolStats() {
+    return threadPoolStats;
   }
 
   @Override
@@ -60,7 +82,10 @@ class ExecutorBeanPostProcessor implements BeanPostProcessor {
   @Override
   public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
     if (bean instanceof Executor) {
-      if (bean instanceof ExecutorService) {
+      if (VirtualThreads.isThreadPerTaskExecutor((Executor) bean)) {
+        // e.g. Executors.newVirtualThreadPerTaskExecutor(), final and not public
+        return proxify((ExecutorService) bean, TracedExecutorService::new, false);
+      } else if (bean instanceof ExecutorService) {
         ExecutorService executorService = (ExecutorService) bean;
         return proxify(
             executorService,
@@ -73,7 +98,12 @@ class ExecutorBeanPostProcessor implements BeanPostProcessor {
         if (classNotFinal) {
           return proxify(
               threadPoolTaskScheduler,
-              (e, t) -> new TracedThreadPoolTaskScheduler(t, e),
+              (e, t) -> {
+                TracedThreadPoolTaskScheduler traced = new TracedThreadPoolTaskScheduler(t, e,
+                    recordQueueWait, queueThreshold);
+                threadPoolStats.put(beanName, traced.getThreadPoolStats());
+                return traced;
+              },
               true
           );
         } else {
@@ -87,7 +117,12 @@ class ExecutorBeanPostProcessor implements BeanPostProcessor {
         if (classNotFinal) {
           return proxify(
               threadPoolTaskExecutor,
-              (e, t) -> new TracedThreadPoolTaskExecutor(t, e),
+              (e, t) -> {
+                TracedThreadPoolTaskExecutor traced = new TracedThreadPoolTaskExecutor(t, e,
+                    recordQueueWait, queueThreshold);
+                threadPoolStats.put(beanName, traced.getThreadPoolStats());
+                return traced;
+              },
               true
           );
         } else {
@@ -129,34 +164,53 @@ class ExecutorBeanPostProcessor implements BeanPostProcessor {
 
 class ExecutorMethodInterceptor<T extends Executor> implements MethodInterceptor {
 
-  private final T delegate;
-  private final Tracer tracer;
-  private final BiFunction<T, Tracer, T> tracedExecutorProvider;
+  private final T tracedExecutor;
+  /**
+   * Methods of the traced executor the intercepted methods are dispatched to, resolved on first
+   * invocation. Empty when the traced executor has no such method and the invocation proceeds.
+   */
+  private final ConcurrentMap<Method, Optional<MethodHandle>> dispatchCache = new ConcurrentHashMap<>();
 
   ExecutorMethodInterceptor(T delegate, BiFunction<T, Tracer, T> tracedExecutorProvider, Tracer tracer) {
-    this.delegate = delegate;
-    this.tracedExecutorProvider = tracedExecutorProvider;
-    this.tracer = tracer;
+    this.tracedExecutor = tracedExecutorProvider.apply(delegate, tracer);
   }
 
   @Override
   public Object invoke(MethodInvocation invocation) throws Throwable {
-    T tracedExecutor = tracedExecutorProvider.apply(delegate, tracer);
-    Method methodOnTracedBean = getMethod(invocation, tracedExecutor);
-    if (methodOnTracedBean != null) {
-      try {
-        return methodOnTracedBean.invoke(tracedExecutor, invocation.getArguments());
-      } catch (InvocationTargetException ex) {
-        throw ex.getCause();
-      }
+    Method method = invocation.getMethod();
+    Optional<MethodHandle> methodOnTracedBean = dispatchCache.get(method);
+    if (methodOnTracedBean == null) {
+      methodOnTracedBean = dispatchCache.computeIfAbsent(method, this::resolveMethodHandle);
+    }
+    if (methodOnTracedBean.isPresent()) {
+      return (Object) methodOnTracedBean.get().invokeExact(invocation.getArguments());
     }
     return invocation.proceed();
   }
 
-  private Method getMethod(MethodInvocation invocation, Object object) {
-    Method method = invocation.getMethod();
-    return ReflectionUtils
-        .findMethod(object.getClass(), method.getName(), method.getParameterTypes());
+  /**
+   * Returns a handle invoking the same method on the traced executor, adapted to take the
+   * invocation arguments array and to return a boxed result.
+   */
+  private Optional<MethodHandle> resolveMethodHandle(Method method) {
+    Method methodOnTracedBean = ReflectionUtils
+        .findMethod(tracedExecutor.getClass(), method.getName(), method.getParameterTypes());
+    if (methodOnTracedBean == null) {
+      return Optional.empty();
+    }
+    MethodHandle handle;
+    try {
+      handle = MethodHandles.publicLookup().unreflect(methodOnTracedBean);
+    } catch (IllegalAccessException ex) {
+      // not invocable from outside of the traced executor
+      return Optional.empty();
+    }
+    if (!Modifier.isStatic(methodOnTracedBean.getModifiers())) {
+      handle = handle.bindTo(tracedExecutor);
+    }
+    int parameterCount = methodOnTracedBean.getParameterCount();
+    return Optional.of(handle
+        .asType(MethodType.genericMethodType(parameterCount))
+        .asSpreader(Object[].class, parameterCount));
   }
 }
-
@@ -0,0 +1,40 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.async;
+
+import io.opentracing.contrib.spring.cloud.async.instrument.ThreadPoolStats;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Exposes saturation statistics of traced thread pools by bean name.
+ */
+@Endpoint(id = "threadpools")
+public class ThreadPoolsEndpoint {
+
+  private final Map<String, ThreadPoolStats> threadPoolStats;
+
+  public ThreadPoolsEndpoint(Map<String, ThreadPoolStats> threadPoolStats) {
+    this.threadPoolStats = threadPoolStats;
+  }
+
+  @ReadOperation
+  public Map<String, Map<String, Object>> threadPools() {
+    Map<String, Map<String, Object>> threadPools = new TreeMap<>();
+    threadPoolStats.forEach((name, stats) -> threadPools.put(name, stats.sample()));
+    return threadPools;
+  }
+}
@@ -17,7 +17,7 @@ import io.opentracing.Scope;
 import io.opentracing.Span;
 import io.opentracing.Tracer;
 import io.opentracing.contrib.spring.cloud.ExtensionTags;
-import io.opentracing.contrib.spring.cloud.SpanUtils;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
 import io.opentracing.tag.Tags;
 import java.lang.reflect.Method;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -38,8 +38,15 @@ public class TraceAsyncAspect {
   @Autowired
   private Tracer tracer;
 
+  private final ErrorCapture errorCapture;
+
   public TraceAsyncAspect(Tracer tracer) {
+    this(tracer, ErrorCapture.noDeduplication());
+  }
+
+  public TraceAsyncAspect(Tracer tracer, ErrorCapture errorCapture) {
     this.tracer = tracer;
+    this.errorCapture = errorCapture;
   }
 
   @Around("execution (@org.springframework.scheduling.annotation.Async * *.*(..))")
@@ -55,7 +62,7 @@ public class TraceAsyncAspect {
     try (Scope scope = this.tracer.scopeManager().activate(span)) {
       return pjp.proceed();
     } catch (Exception ex) {
-      SpanUtils.captureException(span, ex);
+      errorCapture.capture(span, ex);
       throw ex;
     } finally {
       span.finish();
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.async;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Access to virtual threads (JDK 21+) through reflection, so that the starter still runs on older
+ * JDKs.
+ */
+final class VirtualThreads {
+
+  private static final Logger log = LoggerFactory.getLogger(VirtualThreads.class);
+
+  /**
+   * Class of executors returned by {@code Executors.newVirtualThreadPerTaskExecutor()} and
+   * {@code Executors.newThreadPerTaskExecutor(ThreadFactory)}.
+   */
+  private static final String THREAD_PER_TASK_EXECUTOR = "java.util.concurrent.ThreadPerTaskExecutor";
+
+  private VirtualThreads() {
+  }
+
+  /**
+   * @return factory of virtual threads named with the given prefix and a counter, {@code null} if
+   *     virtual threads are not available
+   */
+  static ThreadFactory threadFactory(String namePrefix) {
+    try {
+      Method ofVirtual = Thread.class.getMethod("ofVirtual");
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = ofVirtual.invoke(null);
+      builder = builderClass.getMethod("name", String.class, long.class)
+          .invoke(builder, namePrefix, 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException | LinkageError ex) {
+      log.debug("Virtual threads are not available", ex);
+      return null;
+    }
+  }
+
+  /**
+   * Whether the executor starts a new thread, typically a virtual one, for every task. Such
+   * executors are final and not public, they can only be proxied through their interfaces.
+   */
+  static boolean isThreadPerTaskExecutor(Executor executor) {
+    return THREAD_PER_TASK_EXECUTOR.equals(executor.getClass().getName());
+  }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.async.instrument;
+
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.LatencyHistogram;
+import io.opentracing.tag.Tags;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long tasks wait in the queue of a pool before a thread picks them up, to tell pool
+ * starvation apart from slow tasks. Every wait is added to the histogram of the pool and, when the
+ * task propagates an active span, reported as a child span covering the wait.
+ */
+final class QueueWaitRecorder {
+
+  static final String OPERATION_NAME = "queue";
+  static final String COMPONENT_NAME = "executor";
+
+  private final Tracer tracer;
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  QueueWaitRecorder(Tracer tracer) {
+    this.tracer = tracer;
+  }
+
+  LatencyHistogram getHistogram() {
+    return histogram;
+  }
+
+  /**
+   * The task has to be wrapped before it is traced, so that the propagated span is active when the
+   * wait is reported.
+   */
+  Runnable wrap(Runnable task) {
+    long enqueuedNanos = System.nanoTime();
+    return () -> {
+      started(enqueuedNanos);
+      task.run();
+    };
+  }
+
+  <T> Callable<T> wrap(Callable<T> task) {
+    long enqueuedNanos = System.nanoTime();
+    return () -> {
+      started(enqueuedNanos);
+      return task.call();
+    };
+  }
+
+  private void started(long enqueuedNanos) {
+    long waitNanos = System.nanoTime() - enqueuedNanos;
+    histogram.record(waitNanos, TimeUnit.NANOSECONDS);
+    if (tracer.activeSpan() != null) {
+      long nowMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+      tracer.buildSpan(OPERATION_NAME)
+          .withTag(Tags.COMPONENT.getKey(), COMPONENT_NAME)
+          .withStartTimestamp(nowMicros - TimeUnit.NANOSECONDS.toMicros(waitNanos))
+          .start()
+          .finish(nowMicros);
+    }
+  }
+}
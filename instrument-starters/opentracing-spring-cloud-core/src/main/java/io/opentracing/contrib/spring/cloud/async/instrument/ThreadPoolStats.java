@@ -0,0 +1,169 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.async.instrument;
+
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.LatencyHistogram;
+import io.opentracing.tag.IntTag;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Saturation statistics of a traced thread pool. Live values are read from the pool only when
+ * sampled, submitting a task costs nothing unless a queue threshold is set.
+ */
+public class ThreadPoolStats {
+
+  public static final IntTag QUEUE_SIZE_TAG = new IntTag("executor.queue.size");
+  public static final IntTag ACTIVE_COUNT_TAG = new IntTag("executor.active.count");
+  public static final IntTag POOL_SIZE_TAG = new IntTag("executor.pool.size");
+
+  private final Supplier<ThreadPoolExecutor> threadPoolExecutor;
+  private final int queueThreshold;
+  private final LongAdder rejected = new LongAdder();
+  private final Supplier<LatencyHistogram> queueWait;
+
+  private long lastCompleted;
+  private long lastSampleNanos = System.nanoTime();
+
+  ThreadPoolStats(Supplier<ThreadPoolExecutor> threadPoolExecutor, int queueThreshold,
+      Supplier<LatencyHistogram> queueWait) {
+    this.threadPoolExecutor = threadPoolExecutor;
+    this.queueThreshold = queueThreshold;
+    this.queueWait = queueWait;
+  }
+
+  /**
+   * Tags the active span with the pool state if the queue holds at least the threshold of tasks.
+   */
+  private void beforeSubmit(Tracer tracer) {
+    if (queueThreshold <= 0) {
+      return;
+    }
+    Span span = tracer.activeSpan();
+    if (span == null) {
+      return;
+    }
+    ThreadPoolExecutor executor = threadPoolExecutor.get();
+    int queueSize = executor.getQueue().size();
+    if (queueSize >= queueThreshold) {
+      QUEUE_SIZE_TAG.set(span, queueSize);
+      ACTIVE_COUNT_TAG.set(span, executor.getActiveCount());
+      POOL_SIZE_TAG.set(span, executor.getPoolSize());
+    }
+  }
+
+  /**
+   * Submits a task to the pool, tagging the active span beforehand.
+   */
+  void execute(Tracer tracer, Runnable submission) {
+    beforeSubmit(tracer);
+    submission.run();
+  }
+
+  /**
+   * Same as {@link #execute(Tracer, Runnable)} for submissions returning a future.
+   */
+  <T> T submit(Tracer tracer, Supplier<T> submission) {
+    beforeSubmit(tracer);
+    return submission.get();
+  }
+
+  /**
+   * Wraps the rejected execution handler of the pool to count rejections, also those of handlers
+   * which discard tasks or run them on the caller instead of throwing. Has to be called again
+   * whenever the pool is initialized.
+   */
+  void countRejections() {
+    ThreadPoolExecutor executor;
+    try {
+      executor = threadPoolExecutor.get();
+    } catch (IllegalStateException ex) {
+      // not initialized yet
+      return;
+    }
+    if (executor == null) {
+      return;
+    }
+    RejectedExecutionHandler handler = executor.getRejectedExecutionHandler();
+    if (!(handler instanceof CountingRejectedExecutionHandler)) {
+      executor.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(handler));
+    }
+  }
+
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  /**
+   * Reads the current state of the pool. The completed task rate is computed since the previous
+   * sample.
+   */
+  public synchronized Map<String, Object> sample() {
+    Map<String, Object> stats = new LinkedHashMap<>();
+    ThreadPoolExecutor executor;
+    try {
+      executor = threadPoolExecutor.get();
+    } catch (IllegalStateException ex) {
+      // not initialized yet
+      executor = null;
+    }
+    if (executor != null) {
+      long now = System.nanoTime();
+      long completed = executor.getCompletedTaskCount();
+      double elapsedSeconds = (now - lastSampleNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+      stats.put("poolSize", executor.getPoolSize());
+      stats.put("activeCount", executor.getActiveCount());
+      stats.put("queueSize", executor.getQueue().size());
+      stats.put("queueRemainingCapacity", executor.getQueue().remainingCapacity());
+      stats.put("completedTaskCount", completed);
+      stats.put("completedTasksPerSecond",
+          elapsedSeconds > 0 ? (completed - lastCompleted) / elapsedSeconds : 0);
+      lastCompleted = completed;
+      lastSampleNanos = now;
+    }
+    stats.put("rejectedTaskCount", getRejectedCount());
+    LatencyHistogram histogram = queueWait.get();
+    if (histogram != null) {
+      Map<String, Object> wait = new LinkedHashMap<>();
+      wait.put("count", histogram.getCount());
+      wait.put("mean", histogram.getMean().toString());
+      wait.put("p99", histogram.getPercentile(0.99).toString());
+      wait.put("max", histogram.getMax().toString());
+      stats.put("queueWait", wait);
+    }
+    return stats;
+  }
+
+  private class CountingRejectedExecutionHandler implements RejectedExecutionHandler {
+
+    private final RejectedExecutionHandler delegate;
+
+    CountingRejectedExecutionHandler(RejectedExecutionHandler delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+      rejected.increment();
+      delegate.rejectedExecution(task, executor);
+    }
+  }
+}
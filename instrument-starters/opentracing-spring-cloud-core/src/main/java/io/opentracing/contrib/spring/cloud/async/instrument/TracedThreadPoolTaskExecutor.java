@@ -13,14 +13,17 @@
  */
 package io.opentracing.contrib.spring.cloud.async.instrument;
 
+import io.opentracing.Span;
 import io.opentracing.Tracer;
 import io.opentracing.contrib.concurrent.TracedCallable;
 import io.opentracing.contrib.concurrent.TracedRunnable;
+import io.opentracing.contrib.spring.cloud.LatencyHistogram;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
 
 import org.springframework.core.task.TaskDecorator;
+import org.springframework.lang.Nullable;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.concurrent.ListenableFuture;
 
@@ -31,45 +34,85 @@ public class TracedThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
 
   private final Tracer tracer;
   private final ThreadPoolTaskExecutor delegate;
+  private final QueueWaitRecorder queueWait;
+  private final ThreadPoolStats stats;
 
   public TracedThreadPoolTaskExecutor(Tracer tracer, ThreadPoolTaskExecutor delegate) {
+    this(tracer, delegate, false);
+  }
+
+  /**
+   * @param recordQueueWait whether to record how long tasks wait before they start, see {@link
+   *     #getQueueWaitHistogram()}
+   */
+  public TracedThreadPoolTaskExecutor(Tracer tracer, ThreadPoolTaskExecutor delegate, boolean recordQueueWait) {
+    this(tracer, delegate, recordQueueWait, 0);
+  }
+
+  /**
+   * @param recordQueueWait whether to record how long tasks wait before they start, see {@link
+   *     #getQueueWaitHistogram()}
+   * @param queueThreshold queue size from which the active span is tagged with the pool state when
+   *     a task is submitted, {@code 0} to never tag it
+   */
+  public TracedThreadPoolTaskExecutor(Tracer tracer, ThreadPoolTaskExecutor delegate, boolean recordQueueWait,
+      int queueThreshold) {
     this.tracer = tracer;
     this.delegate = delegate;
+    this.queueWait = recordQueueWait ? new QueueWaitRecorder(tracer) : null;
+    this.stats = new ThreadPoolStats(delegate::getThreadPoolExecutor, queueThreshold, this::getQueueWaitHistogram);
+    this.stats.countRejections();
+  }
+
+  public ThreadPoolStats getThreadPoolStats() {
+    return stats;
+  }
+
+  /**
+   * Time tasks submitted for immediate execution waited before they started. Tasks propagating an
+   * active span also report the wait as a {@code queue} child span.
+   *
+   * @return histogram of waits, {@code null} unless created to record them
+   */
+  @Nullable
+  public LatencyHistogram getQueueWaitHistogram() {
+    return queueWait != null ? queueWait.getHistogram() : null;
   }
 
   @Override
   public void execute(Runnable task) {
-    this.delegate.execute(new TracedRunnable(task, tracer));
+    stats.execute(tracer, () -> this.delegate.execute(wrap(task)));
   }
 
   @Override
   public void execute(Runnable task, long startTimeout) {
-    this.delegate.execute(new TracedRunnable(task, tracer), startTimeout);
+    stats.execute(tracer, () -> this.delegate.execute(wrap(task), startTimeout));
   }
 
   @Override
   public Future<?> submit(Runnable task) {
-    return this.delegate.submit(new TracedRunnable(task, tracer));
+    return stats.submit(tracer, () -> this.delegate.submit(wrap(task)));
   }
 
   @Override
   public <T> Future<T> submit(Callable<T> task) {
-    return this.delegate.submit(new TracedCallable<>(task, tracer));
+    return stats.submit(tracer, () -> this.delegate.submit(wrap(task)));
   }
 
   @Override
   public ListenableFuture<?> submitListenable(Runnable task) {
-    return this.delegate.submitListenable(new TracedRunnable(task, tracer));
+    return stats.submit(tracer, () -> this.delegate.submitListenable(wrap(task)));
   }
 
   @Override
   public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
-    return this.delegate.submitListenable(new TracedCallable<>(task, tracer));
+    return stats.submit(tracer, () -> this.delegate.submitListenable(wrap(task)));
   }
 
   @Override
   public void afterPropertiesSet() {
     this.delegate.afterPropertiesSet();
+    this.stats.countRejections();
     super.afterPropertiesSet();
   }
 
@@ -143,4 +186,26 @@ public class TracedThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
   public int getActiveCount() {
     return this.delegate.getActiveCount();
   }
+
+  private Runnable wrap(Runnable task) {
+    return trace(queueWait != null ? queueWait.wrap(task) : task);
+  }
+
+  private <T> Callable<T> wrap(Callable<T> task) {
+    return trace(queueWait != null ? queueWait.wrap(task) : task);
+  }
+
+  /**
+   * Tasks submitted without an active span are passed on as they are, there is nothing to
+   * propagate.
+   */
+  private Runnable trace(Runnable task) {
+    Span span = tracer.activeSpan();
+    return span != null ? new TracedRunnable(task, tracer, span) : task;
+  }
+
+  private <T> Callable<T> trace(Callable<T> task) {
+    Span span = tracer.activeSpan();
+    return span != null ? new TracedCallable<>(task, tracer, span) : task;
+  }
 }
@@ -13,9 +13,11 @@
  */
 package io.opentracing.contrib.spring.cloud.async.instrument;
 
+import io.opentracing.Span;
 import io.opentracing.Tracer;
 import io.opentracing.contrib.concurrent.TracedCallable;
 import io.opentracing.contrib.concurrent.TracedRunnable;
+import io.opentracing.contrib.spring.cloud.LatencyHistogram;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
@@ -43,10 +45,49 @@ public class TracedThreadPoolTaskScheduler
 
   private final Tracer tracer;
   private final ThreadPoolTaskScheduler delegate;
+  private final QueueWaitRecorder queueWait;
+  private final ThreadPoolStats stats;
 
   public TracedThreadPoolTaskScheduler(Tracer tracer, ThreadPoolTaskScheduler delegate) {
+    this(tracer, delegate, false);
+  }
+
+  /**
+   * @param recordQueueWait whether to record how long tasks wait before they start, see {@link
+   *     #getQueueWaitHistogram()}
+   */
+  public TracedThreadPoolTaskScheduler(Tracer tracer, ThreadPoolTaskScheduler delegate, boolean recordQueueWait) {
+    this(tracer, delegate, recordQueueWait, 0);
+  }
+
+  /**
+   * @param recordQueueWait whether to record how long tasks wait before they start, see {@link
+   *     #getQueueWaitHistogram()}
+   * @param queueThreshold queue size from which the active span is tagged with the pool state when
+   *     a task is submitted, {@code 0} to never tag it
+   */
+  public TracedThreadPoolTaskScheduler(Tracer tracer, ThreadPoolTaskScheduler delegate, boolean recordQueueWait,
+      int queueThreshold) {
     this.tracer = tracer;
     this.delegate = delegate;
+    this.queueWait = recordQueueWait ? new QueueWaitRecorder(tracer) : null;
+    this.stats = new ThreadPoolStats(delegate::getScheduledThreadPoolExecutor, queueThreshold, this::getQueueWaitHistogram);
+    this.stats.countRejections();
+  }
+
+  public ThreadPoolStats getThreadPoolStats() {
+    return stats;
+  }
+
+  /**
+   * Time tasks submitted for immediate execution waited before they started. Tasks propagating an
+   * active span also report the wait as a {@code queue} child span.
+   *
+   * @return histogram of waits, {@code null} unless created to record them
+   */
+  @Nullable
+  public LatencyHistogram getQueueWaitHistogram() {
+    return queueWait != null ? queueWait.getHistogram() : null;
   }
 
   @Override
@@ -93,89 +134,89 @@ public class TracedThreadPoolTaskScheduler
 
   @Override
   public void execute(Runnable task) {
-    delegate.execute(new TracedRunnable(task, tracer));
+    stats.execute(tracer, () -> delegate.execute(wrap(task)));
   }
 
   @Override
   public void execute(Runnable task, long startTimeout) {
-    delegate.execute(new TracedRunnable(task, tracer), startTimeout);
+    stats.execute(tracer, () -> delegate.execute(wrap(task), startTimeout));
   }
 
   @Override
   public Future<?> submit(Runnable task) {
-    return delegate.submit(new TracedRunnable(task, tracer));
+    return stats.submit(tracer, () -> delegate.submit(wrap(task)));
   }
 
   @Override
   public <T> Future<T> submit(Callable<T> task) {
-    return delegate.submit(new TracedCallable<>(task, tracer));
+    return stats.submit(tracer, () -> delegate.submit(wrap(task)));
   }
 
   @Override
   public ListenableFuture<?> submitListenable(Runnable task) {
-    return delegate.submitListenable(new TracedRunnable(task, tracer));
+    return stats.submit(tracer, () -> delegate.submitListenable(wrap(task)));
   }
 
   @Override
   public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
-    return delegate.submitListenable(new TracedCallable<>(task, tracer));
+    return stats.submit(tracer, () -> delegate.submitListenable(wrap(task)));
   }
 
   @Override
   @Nullable
   public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
-    return delegate.schedule(new TracedRunnable(task, tracer), trigger);
+    return delegate.schedule(trace(task), trigger);
   }
 
   @Override
   public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
-    return delegate.schedule(new TracedRunnable(task, tracer), startTime);
+    return delegate.schedule(trace(task), startTime);
   }
 
   @Override
   public ScheduledFuture<?> schedule(Runnable task, Instant startTime) {
-    return delegate.schedule(new TracedRunnable(task, tracer), startTime);
+    return delegate.schedule(trace(task), startTime);
   }
 
   @Override
   public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
-    return delegate.scheduleAtFixedRate(new TracedRunnable(task, tracer), startTime, period);
+    return delegate.scheduleAtFixedRate(trace(task), startTime, period);
   }
 
   @Override
   public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Instant startTime, Duration period) {
-    return delegate.scheduleAtFixedRate(new TracedRunnable(task, tracer), startTime, period);
+    return delegate.scheduleAtFixedRate(trace(task), startTime, period);
   }
 
   @Override
   public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
-    return delegate.scheduleAtFixedRate(new TracedRunnable(task, tracer), period);
+    return delegate.scheduleAtFixedRate(trace(task), period);
   }
 
   @Override
   public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Duration period) {
-    return delegate.scheduleAtFixedRate(new TracedRunnable(task, tracer), period);
+    return delegate.scheduleAtFixedRate(trace(task), period);
   }
 
   @Override
   public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
-    return delegate.scheduleWithFixedDelay(new TracedRunnable(task, tracer), startTime, delay);
+    return delegate.scheduleWithFixedDelay(trace(task), startTime, delay);
   }
 
   @Override
   public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
-    return delegate.scheduleWithFixedDelay(new TracedRunnable(task, tracer), delay);
+    return delegate.scheduleWithFixedDelay(trace(task), delay);
   }
 
   @Override
   public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Instant startTime,
       Duration delay) {
-    return delegate.scheduleWithFixedDelay(new TracedRunnable(task, tracer), startTime, delay);
+    return delegate.scheduleWithFixedDelay(trace(task), startTime, delay);
   }
 
   @Override
   public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Duration delay) {
-    return delegate.scheduleWithFixedDelay(new TracedRunnable(task, tracer), delay);
+    return delegate.scheduleWithFixedDelay(trace(task), delay);
   }
 
   @Override
@@ -211,11 +252,13 @@ public class TracedThreadPoolTaskScheduler
   @Override
   public void afterPropertiesSet() {
     delegate.afterPropertiesSet();
+    stats.countRejections();
   }
 
   @Override
   public void initialize() {
     delegate.initialize();
+    stats.countRejections();
   }
 
   @Override
@@ -283,4 +326,26 @@ public class TracedThreadPoolTaskScheduler
   public boolean prefersShortLivedTasks() {
     return delegate.prefersShortLivedTasks();
   }
+
+  private Runnable wrap(Runnable task) {
+    return trace(queueWait != null ? queueWait.wrap(task) : task);
+  }
+
+  private <T> Callable<T> wrap(Callable<T> task) {
+    return trace(queueWait != null ? queueWait.wrap(task) : task);
+  }
+
+  /**
+   * Tasks submitted without an active span are passed on as they are, there is nothing to
+   * propagate.
+   */
+  private Runnable trace(Runnable task) {
+    Span span = tracer.activeSpan();
+    return span != null ? new TracedRunnable(task, tracer, span) : task;
+  }
+
+  private <T> Callable<T> trace(Callable<T> task) {
+    Span span = tracer.activeSpan();
+    return span != null ? new TracedCallable<>(task, tracer, span) : task;
+  }
 }
@@ -0,0 +1,35 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.error;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides the {@link ErrorCapture} bean injected into instrumentations.
+ */
+@Configuration
+@ConditionalOnProperty(name = "opentracing.spring.cloud.error.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(ErrorCaptureProperties.class)
+public class ErrorCaptureAutoConfiguration {
+
+  @Bean
+  public ErrorCapture errorCapture(ErrorCaptureProperties properties) {
+    long windowMillis = properties.getDeduplicationWindow() != null
+        ? properties.getDeduplicationWindow().toMillis() : 0;
+    return new ErrorCapture(windowMillis, properties.getMaxFingerprints());
+  }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.error;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("opentracing.spring.cloud.error")
+public class ErrorCaptureProperties {
+
+  /**
+   * Configure the error capture of instrumentations. When disabled, errors are always logged with
+   * the full exception.
+   */
+  private boolean enabled = true;
+
+  /**
+   * Time window in which an exception fingerprint is logged with the full exception once, later
+   * occurrences only reference the fingerprint. Not set or 0 to always log the full exception.
+   */
+  private Duration deduplicationWindow;
+
+  /**
+   * Number of exception fingerprints remembered.
+   */
+  private int maxFingerprints = 1000;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public Duration getDeduplicationWindow() {
+    return deduplicationWindow;
+  }
+
+  public void setDeduplicationWindow(Duration deduplicationWindow) {
+    this.deduplicationWindow = deduplicationWindow;
+  }
+
+  public int getMaxFingerprints() {
+    return maxFingerprints;
+  }
+
+  public void setMaxFingerprints(int maxFingerprints) {
+    this.maxFingerprints = maxFingerprints;
+  }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.log;
+
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
+import io.opentracing.contrib.spring.tracer.configuration.TracerAutoConfiguration;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Adds {@link Log4j2SpanLogsAppender} to the root logger when the Log4j API is backed by Log4j2
+ * core. The appender is added again when Log4j2 is reconfigured.
+ */
+@Configuration
+@ConditionalOnBean(Tracer.class)
+@AutoConfigureAfter(TracerAutoConfiguration.class)
+@ConditionalOnClass(LoggerContext.class)
+@ConditionalOnProperty(name = "opentracing.spring.cloud.log.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(LogTracingProperties.class)
+public class Log4j2LoggingAutoConfiguration implements PropertyChangeListener {
+
+  @Autowired
+  private Tracer tracer;
+
+  @Autowired
+  private LogTracingProperties logTracingProperties;
+
+  @Autowired
+  private ObjectProvider<ErrorCapture> errorCapture;
+
+  private LoggerContext loggerContext;
+  private Log4j2SpanLogsAppender spanLogsAppender;
+
+  @PostConstruct
+  public void postConstruct() {
+    org.apache.logging.log4j.spi.LoggerContext context = LogManager.getContext(false);
+    if (!(context instanceof LoggerContext)) {
+      // the Log4j API is routed elsewhere, e.g. to SLF4J
+      return;
+    }
+    loggerContext = (LoggerContext) context;
+    spanLogsAppender = new Log4j2SpanLogsAppender(tracer);
+    spanLogsAppender.setMaxLogsPerSpan(logTracingProperties.getMaxLogsPerSpan());
+    spanLogsAppender.setMaxMessageLength(logTracingProperties.getMaxMessageLength());
+    spanLogsAppender.setErrorCapture(errorCapture.getIfAvailable(ErrorCapture::noDeduplication));
+    spanLogsAppender.start();
+    addAppender(loggerContext.getConfiguration());
+    loggerContext.addPropertyChangeListener(this);
+  }
+
+  @PreDestroy
+  public void preDestroy() {
+    if (loggerContext != null) {
+      loggerContext.removePropertyChangeListener(this);
+      loggerContext.getConfiguration().getRootLogger().removeAppender(spanLogsAppender.getName());
+      loggerContext.updateLoggers();
+      spanLogsAppender.stop();
+    }
+  }
+
+  @Override
+  public void propertyChange(PropertyChangeEvent event) {
+    if (LoggerContext.PROPERTY_CONFIG.equals(event.getPropertyName())) {
+      addAppender((org.apache.logging.log4j.core.config.Configuration) event.getNewValue());
+    }
+  }
+
+  private void addAppender(org.apache.logging.log4j.core.config.Configuration configuration) {
+    // only referenced from the root logger, stopping a replaced configuration must not stop it
+    configuration.getRootLogger().addAppender(spanLogsAppender, null, null);
+    loggerContext.updateLoggers(configuration);
+  }
+}
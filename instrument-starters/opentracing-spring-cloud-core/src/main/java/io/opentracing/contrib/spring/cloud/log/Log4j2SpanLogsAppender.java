@@ -0,0 +1,125 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.log;
+
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
+import io.opentracing.tag.Tags;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.time.Instant;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.StringBuilders;
+
+/**
+ * Log4j2 counterpart of {@link SpanLogsAppender}, adding logging events to the active span as span
+ * logs.
+ *
+ * <p>It is meant to keep up with Log4j2 in garbage-free mode: events are read in place and never
+ * snapshotted, reusable messages are formatted into a thread-local buffer and nothing is allocated
+ * when there is no active span. The fields map and the message string are still allocated per
+ * event, the tracer keeps both until the span is reported.
+ */
+public class Log4j2SpanLogsAppender extends AbstractAppender {
+
+  private static final ThreadLocal<StringBuilder> MESSAGE_BUFFER =
+      ThreadLocal.withInitial(() -> new StringBuilder(Constants.MAX_REUSABLE_MESSAGE_SIZE));
+
+  private final Tracer tracer;
+  private int maxMessageLength;
+  private SpanLogBudgets spanBudgets;
+  private ErrorCapture errorCapture = ErrorCapture.noDeduplication();
+
+  public Log4j2SpanLogsAppender(Tracer tracer) {
+    super(Log4j2SpanLogsAppender.class.getSimpleName(), null, null, true, Property.EMPTY_ARRAY);
+    this.tracer = tracer;
+  }
+
+  /**
+   * Maximum number of logs attached to a span, {@code 0} for no limit. Must be set before the
+   * appender is started.
+   */
+  public void setMaxLogsPerSpan(int maxLogsPerSpan) {
+    this.spanBudgets = maxLogsPerSpan > 0 ? new SpanLogBudgets(maxLogsPerSpan) : null;
+  }
+
+  /**
+   * Messages longer than this are truncated, {@code 0} for no limit.
+   */
+  public void setMaxMessageLength(int maxMessageLength) {
+    this.maxMessageLength = maxMessageLength;
+  }
+
+  /**
+   * Builds the error fields of events with an exception, logs the full exception every time by
+   * default. Must be set before the appender is started.
+   */
+  public void setErrorCapture(ErrorCapture errorCapture) {
+    this.errorCapture = errorCapture;
+  }
+
+  @Override
+  public void append(LogEvent event) {
+    Span span = tracer.activeSpan();
+    if (span == null) {
+      return;
+    }
+    Level level = event.getLevel();
+    boolean error = level.isMoreSpecificThan(Level.ERROR);
+    if (error) {
+      Tags.ERROR.set(span, Boolean.TRUE);
+    }
+    if (spanBudgets != null && !spanBudgets.tryAcquire(span, level.name(), event.getLoggerName())) {
+      return;
+    }
+
+    Map<String, Object> logs = new HashMap<>(8);
+    logs.put("logger", event.getLoggerName());
+    logs.put("level", level.name());
+    logs.put("thread", event.getThreadName());
+    logs.put("message", format(event.getMessage()));
+    if (error) {
+      logs.put("event", Tags.ERROR.getKey());
+    }
+    Throwable thrown = event.getThrown();
+    if (thrown != null) {
+      errorCapture.putErrorFields(logs, thrown);
+    }
+    Instant instant = event.getInstant();
+    span.log(instant.getEpochMillisecond() * 1000 + instant.getNanoOfMillisecond() / 1000, logs);
+  }
+
+  private String format(Message message) {
+    if (!(message instanceof StringBuilderFormattable)) {
+      return SpanLogsAppender.truncate(message.getFormattedMessage(), maxMessageLength);
+    }
+    StringBuilder buffer = MESSAGE_BUFFER.get();
+    buffer.setLength(0);
+    ((StringBuilderFormattable) message).formatTo(buffer);
+    if (maxMessageLength > 0 && buffer.length() > maxMessageLength) {
+      buffer.setLength(maxMessageLength);
+      buffer.append("...");
+    }
+    String formatted = buffer.toString();
+    StringBuilders.trimToMaxSize(buffer, Constants.MAX_REUSABLE_MESSAGE_SIZE);
+    return formatted;
+  }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.log;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("opentracing.spring.cloud.log")
+public class LogTracingProperties {
+
+  /**
+   * Add standard logging output to tracing system.
+   */
+  private boolean enabled = true;
+
+  /**
+   * Attach logs to spans from a background thread instead of the logging thread.
+   */
+  private boolean async = false;
+
+  /**
+   * Capacity of the buffer of logging events waiting to be attached in asynchronous mode, events
+   * are dropped when it is full.
+   */
+  private int asyncBufferSize = 8192;
+
+  /**
+   * Maximum number of logs attached to a span, further events are only counted and summarized.
+   * 0 for no limit.
+   */
+  private int maxLogsPerSpan = 0;
+
+  /**
+   * Log messages longer than this are truncated, 0 for no limit.
+   */
+  private int maxMessageLength = 0;
+
+  /**
+   * Put trace and span ids of the active span into the logging MDC.
+   */
+  private boolean mdc = false;
+
+  /**
+   * MDC key of the trace id.
+   */
+  private String mdcTraceIdKey = "traceId";
+
+  /**
+   * MDC key of the span id.
+   */
+  private String mdcSpanIdKey = "spanId";
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public boolean isAsync() {
+    return async;
+  }
+
+  public void setAsync(boolean async) {
+    this.async = async;
+  }
+
+  public int getAsyncBufferSize() {
+    return asyncBufferSize;
+  }
+
+  public void setAsyncBufferSize(int asyncBufferSize) {
+    this.asyncBufferSize = asyncBufferSize;
+  }
+
+  public int getMaxLogsPerSpan() {
+    return maxLogsPerSpan;
+  }
+
+  public void setMaxLogsPerSpan(int maxLogsPerSpan) {
+    this.maxLogsPerSpan = maxLogsPerSpan;
+  }
+
+  public int getMaxMessageLength() {
+    return maxMessageLength;
+  }
+
+  public void setMaxMessageLength(int maxMessageLength) {
+    this.maxMessageLength = maxMessageLength;
+  }
+
+  public boolean isMdc() {
+    return mdc;
+  }
+
+  public void setMdc(boolean mdc) {
+    this.mdc = mdc;
+  }
+
+  public String getMdcTraceIdKey() {
+    return mdcTraceIdKey;
+  }
+
+  public void setMdcTraceIdKey(String mdcTraceIdKey) {
+    this.mdcTraceIdKey = mdcTraceIdKey;
+  }
+
+  public String getMdcSpanIdKey() {
+    return mdcSpanIdKey;
+  }
+
+  public void setMdcSpanIdKey(String mdcSpanIdKey) {
+    this.mdcSpanIdKey = mdcSpanIdKey;
+  }
+}
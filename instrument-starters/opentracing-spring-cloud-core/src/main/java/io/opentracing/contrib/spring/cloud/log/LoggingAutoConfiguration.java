@@ -16,14 +16,18 @@ package io.opentracing.contrib.spring.cloud.log;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
 import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
 import io.opentracing.contrib.spring.tracer.configuration.TracerAutoConfiguration;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
 /**
@@ -34,19 +38,44 @@ import org.springframework.context.annotation.Configuration;
 @AutoConfigureAfter(TracerAutoConfiguration.class)
 @ConditionalOnClass(ch.qos.logback.classic.Logger.class)
 @ConditionalOnProperty(name = "opentracing.spring.cloud.log.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(LogTracingProperties.class)
 public class LoggingAutoConfiguration {
 
   @Autowired
   private Tracer tracer;
 
+  @Autowired
+  private LogTracingProperties logTracingProperties;
+
+  @Autowired
+  private ObjectProvider<ErrorCapture> errorCapture;
+
+  private SpanLogsAppender spanLogsAppender;
+
   @PostConstruct
   public void postConstruct() {
-    SpanLogsAppender spanLogsAppender = new SpanLogsAppender(tracer);
+    if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext)) {
+      // SLF4J is bound to another backend, e.g. Log4j2
+      return;
+    }
+    spanLogsAppender = new SpanLogsAppender(tracer,
+        logTracingProperties.isAsync() ? logTracingProperties.getAsyncBufferSize() : 0);
+    spanLogsAppender.setMaxLogsPerSpan(logTracingProperties.getMaxLogsPerSpan());
+    spanLogsAppender.setMaxMessageLength(logTracingProperties.getMaxMessageLength());
+    spanLogsAppender.setErrorCapture(errorCapture.getIfAvailable(ErrorCapture::noDeduplication));
     spanLogsAppender.start();
     Logger rootLogger = getRootLogger();
     rootLogger.addAppender(spanLogsAppender);
   }
 
+  @PreDestroy
+  public void preDestroy() {
+    if (spanLogsAppender != null) {
+      getRootLogger().detachAppender(spanLogsAppender);
+      spanLogsAppender.stop();
+    }
+  }
+
   private Logger getRootLogger() {
     LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
     return context.getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME);
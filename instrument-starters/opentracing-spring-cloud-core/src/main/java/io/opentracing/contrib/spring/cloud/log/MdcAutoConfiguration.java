@@ -0,0 +1,38 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.log;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Fills the MDC from the {@link io.opentracing.Tracer} bean, see {@link MdcTracerPostProcessor}.
+ */
+@Configuration
+@ConditionalOnClass(MDC.class)
+@ConditionalOnProperty(name = "opentracing.spring.cloud.log.mdc")
+@EnableConfigurationProperties(LogTracingProperties.class)
+public class MdcAutoConfiguration {
+
+  @Bean
+  static MdcTracerPostProcessor mdcTracerPostProcessor(
+      ObjectProvider<LogTracingProperties> properties) {
+    return new MdcTracerPostProcessor(properties);
+  }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.log;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.slf4j.MDC;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Mapped diagnostic context of the logging backend in use.
+ */
+abstract class MdcContext {
+
+  private static final boolean LOG4J2_PRESENT = ClassUtils.isPresent(
+      "org.apache.logging.log4j.core.LoggerContext", MdcContext.class.getClassLoader());
+
+  abstract String get(String key);
+
+  abstract void put(String key, String value);
+
+  abstract void remove(String key);
+
+  /**
+   * The Log4j2 thread context when Log4j2 core backs the Log4j API, SLF4J MDC otherwise. Log4j2
+   * bridges route the other API to the same map.
+   */
+  static MdcContext forCurrentBackend() {
+    if (LOG4J2_PRESENT && Log4j2ThreadContext.isActive()) {
+      return new Log4j2ThreadContext();
+    }
+    return new Slf4jMdc();
+  }
+
+  static final class Slf4jMdc extends MdcContext {
+    @Override
+    String get(String key) {
+      return MDC.get(key);
+    }
+
+    @Override
+    void put(String key, String value) {
+      MDC.put(key, value);
+    }
+
+    @Override
+    void remove(String key) {
+      MDC.remove(key);
+    }
+  }
+
+  static final class Log4j2ThreadContext extends MdcContext {
+    static boolean isActive() {
+      return LogManager.getContext(false) instanceof org.apache.logging.log4j.core.LoggerContext;
+    }
+
+    @Override
+    String get(String key) {
+      return ThreadContext.get(key);
+    }
+
+    @Override
+    void put(String key, String value) {
+      ThreadContext.put(key, value);
+    }
+
+    @Override
+    void remove(String key) {
+      ThreadContext.remove(key);
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.log;
+
+import io.opentracing.Scope;
+import io.opentracing.ScopeManager;
+import io.opentracing.Span;
+import io.opentracing.SpanContext;
+
+/**
+ * Puts trace and span ids of the activated span into the MDC and restores the previous values when
+ * the scope is closed. Spans without ids, or no span, clear them. The tracer bean is routed through
+ * it by {@link MdcTracerPostProcessor}, other tracers can be built with it, e.g.
+ * {@code new MockTracer(scopeManager)} or {@code withScopeManager(scopeManager)} of the tracer
+ * builder.
+ */
+public class MdcScopeManager implements ScopeManager {
+
+  /**
+   * Ids of the span context last activated on the thread, a span is usually activated several
+   * times, e.g. in each task it is propagated to.
+   */
+  private static final ThreadLocal<Ids> LAST_IDS = new ThreadLocal<>();
+
+  private final ScopeManager delegate;
+  private final MdcContext mdc;
+  private final String traceIdKey;
+  private final String spanIdKey;
+
+  public MdcScopeManager(ScopeManager delegate, String traceIdKey, String spanIdKey) {
+    this(delegate, MdcContext.forCurrentBackend(), traceIdKey, spanIdKey);
+  }
+
+  MdcScopeManager(ScopeManager delegate, MdcContext mdc, String traceIdKey, String spanIdKey) {
+    this.delegate = delegate;
+    this.mdc = mdc;
+    this.traceIdKey = traceIdKey;
+    this.spanIdKey = spanIdKey;
+  }
+
+  @Override
+  public Scope activate(Span span) {
+    Scope scope = delegate.activate(span);
+    Ids ids = span != null ? ids(span.context()) : null;
+    String previousTraceId = mdc.get(traceIdKey);
+    String previousSpanId = mdc.get(spanIdKey);
+    if (ids != null) {
+      mdc.put(traceIdKey, ids.traceId);
+      mdc.put(spanIdKey, ids.spanId);
+    } else {
+      mdc.remove(traceIdKey);
+      mdc.remove(spanIdKey);
+    }
+    return new MdcScope(scope, previousTraceId, previousSpanId);
+  }
+
+  @Override
+  public Span activeSpan() {
+    return delegate.activeSpan();
+  }
+
+  /**
+   * @return ids of the context, {@code null} when it has none
+   */
+  private static Ids ids(SpanContext context) {
+    if (context == null) {
+      return null;
+    }
+    Ids ids = LAST_IDS.get();
+    if (ids != null && ids.context == context) {
+      return ids;
+    }
+    String traceId = context.toTraceId();
+    if (traceId == null || traceId.isEmpty()) {
+      return null;
+    }
+    ids = new Ids(context, traceId, context.toSpanId());
+    LAST_IDS.set(ids);
+    return ids;
+  }
+
+  private void restore(String key, String value) {
+    if (value == null) {
+      mdc.remove(key);
+    } else {
+      mdc.put(key, value);
+    }
+  }
+
+  private static final class Ids {
+    private final SpanContext context;
+    private final String traceId;
+    private final String spanId;
+
+    Ids(SpanContext context, String traceId, String spanId) {
+      this.context = context;
+      this.traceId = traceId;
+      this.spanId = spanId;
+    }
+  }
+
+  private class MdcScope implements Scope {
+    private final Scope delegate;
+    private final String previousTraceId;
+    private final String previousSpanId;
+
+    MdcScope(Scope delegate, String previousTraceId, String previousSpanId) {
+      this.delegate = delegate;
+      this.previousTraceId = previousTraceId;
+      this.previousSpanId = previousSpanId;
+    }
+
+    @Override
+    public void close() {
+      delegate.close();
+      restore(traceIdKey, previousTraceId);
+      restore(spanIdKey, previousSpanId);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.log;
+
+import io.opentracing.ScopeManager;
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.noop.NoopTracer;
+import java.lang.reflect.Modifier;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.NameMatchMethodPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Routes span activations of {@link Tracer} beans through a {@link MdcScopeManager} wrapping the
+ * scope manager of the tracer, both {@code activateSpan} and {@code scopeManager()} being
+ * intercepted. The tracer is proxied by its class, so it can still be injected by its concrete type.
+ * Tracers built with a {@link MdcScopeManager} are left as they are.
+ */
+class MdcTracerPostProcessor implements BeanPostProcessor {
+
+  private static final Logger log = LoggerFactory.getLogger(MdcTracerPostProcessor.class);
+
+  private final ObjectProvider<LogTracingProperties> properties;
+
+  MdcTracerPostProcessor(ObjectProvider<LogTracingProperties> properties) {
+    this.properties = properties;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (!(bean instanceof Tracer) || bean instanceof NoopTracer) {
+      return bean;
+    }
+    ScopeManager scopeManager = ((Tracer) bean).scopeManager();
+    if (scopeManager instanceof MdcScopeManager) {
+      return bean;
+    }
+    LogTracingProperties logTracingProperties = properties.getObject();
+    NameMatchMethodPointcutAdvisor advisor = new NameMatchMethodPointcutAdvisor(
+        mdcInterceptor(new MdcScopeManager(scopeManager, logTracingProperties.getMdcTraceIdKey(),
+            logTracingProperties.getMdcSpanIdKey())));
+    advisor.setMappedNames("activateSpan", "scopeManager");
+    if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+      ((Advised) bean).addAdvisor(0, advisor);
+      return bean;
+    }
+    if (AopUtils.isAopProxy(bean) || Modifier.isFinal(bean.getClass().getModifiers())) {
+      log.warn("Tracer bean '{}' of {} cannot be proxied, build it with a MdcScopeManager to fill "
+          + "the MDC", beanName, bean.getClass());
+      return bean;
+    }
+    ProxyFactory proxyFactory = new ProxyFactory(bean);
+    proxyFactory.setProxyTargetClass(true);
+    proxyFactory.addAdvisor(advisor);
+    return proxyFactory.getProxy(bean.getClass().getClassLoader());
+  }
+
+  private static MethodInterceptor mdcInterceptor(MdcScopeManager scopeManager) {
+    return invocation -> {
+      if (invocation.getMethod().getName().equals("scopeManager")) {
+        return scopeManager;
+      }
+      return scopeManager.activate((Span) invocation.getArguments()[0]);
+    };
+  }
+}
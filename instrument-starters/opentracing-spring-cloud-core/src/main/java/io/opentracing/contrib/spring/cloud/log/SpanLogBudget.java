@@ -0,0 +1,71 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.log;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of logs a span may still get, and counts of the logging events suppressed once it is
+ * used up.
+ */
+final class SpanLogBudget {
+
+  static final String SUMMARY_EVENT = "logs.suppressed";
+
+  /**
+   * Loggers beyond this many are counted together.
+   */
+  private static final int MAX_LOGGERS = 32;
+  private static final String OTHER_LOGGERS = "other";
+
+  private final int maxLogs;
+  private final AtomicInteger logged = new AtomicInteger();
+  private final AtomicLong suppressed = new AtomicLong();
+  private final ConcurrentMap<String, LongAdder> suppressedByLevel = new ConcurrentHashMap<>(8);
+  private final ConcurrentMap<String, LongAdder> suppressedByLogger = new ConcurrentHashMap<>(8);
+
+  SpanLogBudget(int maxLogs) {
+    this.maxLogs = maxLogs;
+  }
+
+  boolean tryAcquire() {
+    return logged.get() < maxLogs && logged.incrementAndGet() <= maxLogs;
+  }
+
+  /**
+   * @return number of events suppressed so far, including this one
+   */
+  long suppress(String level, String loggerName) {
+    suppressedByLevel.computeIfAbsent(level, key -> new LongAdder()).increment();
+    String logger = suppressedByLogger.size() < MAX_LOGGERS || suppressedByLogger.containsKey(loggerName)
+        ? loggerName : OTHER_LOGGERS;
+    suppressedByLogger.computeIfAbsent(logger, key -> new LongAdder()).increment();
+    return suppressed.incrementAndGet();
+  }
+
+  Map<String, Object> summary() {
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("event", SUMMARY_EVENT);
+    summary.put("suppressed", suppressed.get());
+    suppressedByLevel.forEach((level, count) -> summary.put("suppressed.level." + level, count.sum()));
+    suppressedByLogger.forEach((logger, count) -> summary.put("suppressed.logger." + logger, count.sum()));
+    return summary;
+  }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.log;
+
+import io.opentracing.Span;
+import io.opentracing.SpanContext;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Log budgets of spans, shared by the span log appenders. Events past the budget of a span are
+ * only counted, and the counts are logged as a summary whenever the number of suppressed events
+ * reaches a power of two.
+ *
+ * <p>Budgets are keyed by the ids of the span context, tracers may return a new span object from
+ * every {@code activeSpan()} call. Finished spans are not known, so budgets are kept in two
+ * generations: once the current one is full it becomes the old one, and the budgets of the
+ * previous old one are dropped unless used in the meantime.
+ */
+final class SpanLogBudgets {
+
+  static final int GENERATION_SIZE = 4096;
+
+  private final int maxLogsPerSpan;
+  private volatile Map<SpanKey, SpanLogBudget> current = new ConcurrentHashMap<>();
+  private volatile Map<SpanKey, SpanLogBudget> old = new ConcurrentHashMap<>();
+
+  SpanLogBudgets(int maxLogsPerSpan) {
+    this.maxLogsPerSpan = maxLogsPerSpan;
+  }
+
+  /**
+   * @return whether the event can be logged to the span
+   */
+  boolean tryAcquire(Span span, String level, String loggerName) {
+    SpanContext context = span.context();
+    String spanId = context.toSpanId();
+    if (spanId == null || spanId.isEmpty()) {
+      return true;
+    }
+    SpanLogBudget budget = budget(new SpanKey(context.toTraceId(), spanId));
+    if (budget.tryAcquire()) {
+      return true;
+    }
+    long suppressed = budget.suppress(level, loggerName);
+    if (Long.bitCount(suppressed) == 1) {
+      span.log(budget.summary());
+    }
+    return false;
+  }
+
+  private SpanLogBudget budget(SpanKey key) {
+    Map<SpanKey, SpanLogBudget> budgets = current;
+    SpanLogBudget budget = budgets.get(key);
+    if (budget != null) {
+      return budget;
+    }
+    SpanLogBudget oldBudget = old.get(key);
+    budget = budgets.computeIfAbsent(key,
+        ignored -> oldBudget != null ? oldBudget : new SpanLogBudget(maxLogsPerSpan));
+    if (budgets.size() > GENERATION_SIZE) {
+      rotate(budgets);
+    }
+    return budget;
+  }
+
+  private synchronized void rotate(Map<SpanKey, SpanLogBudget> full) {
+    if (current == full) {
+      old = full;
+      current = new ConcurrentHashMap<>();
+    }
+  }
+
+  private static final class SpanKey {
+    private final String traceId;
+    private final String spanId;
+
+    SpanKey(String traceId, String spanId) {
+      this.traceId = traceId;
+      this.spanId = spanId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SpanKey)) {
+        return false;
+      }
+      SpanKey other = (SpanKey) o;
+      return spanId.equals(other.spanId) && Objects.equals(traceId, other.traceId);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * spanId.hashCode() + (traceId != null ? traceId.hashCode() : 0);
+    }
+  }
+}
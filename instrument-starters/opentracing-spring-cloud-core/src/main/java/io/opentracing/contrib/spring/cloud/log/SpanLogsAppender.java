@@ -20,21 +20,129 @@ import ch.qos.logback.classic.spi.ThrowableProxy;
 import ch.qos.logback.core.UnsynchronizedAppenderBase;
 import io.opentracing.Span;
 import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
 import io.opentracing.tag.Tags;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 /**
+ * Adds logging events to the active span as span logs. In asynchronous mode the span and the event
+ * are handed to a ring buffer on the logging thread, and a background thread builds the logs and
+ * attaches them in batches. Events arriving when the buffer is full are dropped. The events of a
+ * batch are grouped by span, a span with several events gets a single log at the time of the first
+ * one, holding the fields of each event under {@code logs}. OpenTracing cannot tell whether a span
+ * is finished, so logs may be attached to a span after it finished and was handed to the reporter.
+ * Whether they are then recorded, ignored or rejected depends on the tracer, rejected events are
+ * counted.
+ *
+ * <p>With a {@linkplain #setMaxLogsPerSpan(int) log budget}, events past the budget of a span are
+ * only counted by level and logger. The counts are logged as a summary whenever the number of
+ * suppressed events reaches a power of two, so a span gets a handful of summaries at most and the
+ * last one is off by less than a factor of two.
+ *
  * @author Pavol Loffay
  */
 public class SpanLogsAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
 
+  private static final int DRAIN_BATCH_SIZE = 256;
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
   private final Tracer tracer;
+  private final SpanLogsRingBuffer ringBuffer;
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  /**
+   * Events of the batch being drained by span, only used by the drainer.
+   */
+  private final Map<Span, List<ILoggingEvent>> batch = new IdentityHashMap<>();
+  private volatile Thread drainer;
+  private volatile boolean drainerIdle;
+  private int maxMessageLength;
+  private SpanLogBudgets spanBudgets;
+  private ErrorCapture errorCapture = ErrorCapture.noDeduplication();
 
   public SpanLogsAppender(Tracer tracer) {
+    this(tracer, 0);
+  }
+
+  /**
+   * @param asyncBufferSize capacity of the buffer of events waiting to be attached in asynchronous
+   *     mode, {@code 0} to attach logs synchronously
+   */
+  public SpanLogsAppender(Tracer tracer, int asyncBufferSize) {
     this.name = SpanLogsAppender.class.getSimpleName();
     this.tracer = tracer;
+    this.ringBuffer = asyncBufferSize > 0 ? new SpanLogsRingBuffer(asyncBufferSize) : null;
+  }
+
+  @Override
+  public void start() {
+    if (ringBuffer != null && drainer == null) {
+      Thread thread = new Thread(this::drainLoop, name + "-drainer");
+      thread.setDaemon(true);
+      drainer = thread;
+      thread.start();
+    }
+    super.start();
+  }
+
+  @Override
+  public void stop() {
+    super.stop();
+    Thread thread = drainer;
+    if (thread != null) {
+      drainer = null;
+      LockSupport.unpark(thread);
+      try {
+        thread.join(TimeUnit.SECONDS.toMillis(1));
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Maximum number of logs attached to a span, {@code 0} for no limit. Must be set before the
+   * appender is started.
+   */
+  public void setMaxLogsPerSpan(int maxLogsPerSpan) {
+    this.spanBudgets = maxLogsPerSpan > 0 ? new SpanLogBudgets(maxLogsPerSpan) : null;
+  }
+
+  /**
+   * Messages longer than this are truncated, {@code 0} for no limit.
+   */
+  public void setMaxMessageLength(int maxMessageLength) {
+    this.maxMessageLength = maxMessageLength;
+  }
+
+  /**
+   * Builds the error fields of events with an exception, logs the full exception every time by
+   * default. Must be set before the appender is started.
+   */
+  public void setErrorCapture(ErrorCapture errorCapture) {
+    this.errorCapture = errorCapture;
+  }
+
+  /**
+   * @return number of events dropped because the asynchronous buffer was full
+   */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * @return number of events attached in asynchronous mode which the tracer rejected, typically
+   *     because their span already finished
+   */
+  public long getRejectedCount() {
+    return rejected.sum();
   }
 
   /**
@@ -45,26 +153,126 @@ public class SpanLogsAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
   protected void append(ILoggingEvent event) {
     Span span = tracer.activeSpan();
     if (span != null) {
-      Map<String, Object> logs = new HashMap<>(6);
-      logs.put("logger", event.getLoggerName());
-      logs.put("level", event.getLevel().toString());
-      logs.put("thread", event.getThreadName());
-      logs.put("message", event.getFormattedMessage());
-
       if (Level.ERROR.equals(event.getLevel())) {
+        // tagged right away, the span might be finished before the log is attached
         Tags.ERROR.set(span, Boolean.TRUE);
-        logs.put("event", Tags.ERROR.getKey());
       }
+      if (spanBudgets != null
+          && !spanBudgets.tryAcquire(span, event.getLevel().toString(), event.getLoggerName())) {
+        return;
+      }
+      if (ringBuffer == null) {
+        log(span, event);
+        return;
+      }
+      // formats the message and captures the thread name and MDC while still on the logging thread
+      event.prepareForDeferredProcessing();
+      if (!ringBuffer.offer(span, event)) {
+        dropped.increment();
+      } else if (drainerIdle) {
+        drainerIdle = false;
+        LockSupport.unpark(drainer);
+      }
+    }
+  }
+
+  static String truncate(String message, int maxMessageLength) {
+    if (maxMessageLength > 0 && message != null && message.length() > maxMessageLength) {
+      return message.substring(0, maxMessageLength) + "...";
+    }
+    return message;
+  }
+
+  private void log(Span span, ILoggingEvent event) {
+    span.log(timestampMicros(event), fields(event));
+  }
+
+  private Map<String, Object> fields(ILoggingEvent event) {
+    Map<String, Object> logs = new HashMap<>(8);
+    logs.put("logger", event.getLoggerName());
+    logs.put("level", event.getLevel().toString());
+    logs.put("thread", event.getThreadName());
+    logs.put("message", truncate(event.getFormattedMessage(), maxMessageLength));
 
-      IThrowableProxy throwableProxy = event.getThrowableProxy();
-      if (throwableProxy instanceof ThrowableProxy) {
-        Throwable throwable = ((ThrowableProxy)throwableProxy).getThrowable();
-        // String stackTrace = ThrowableProxyUtil.asString(throwableProxy);
-        if (throwable != null) {
-          logs.put("error.object", throwable);
+    if (Level.ERROR.equals(event.getLevel())) {
+      logs.put("event", Tags.ERROR.getKey());
+    }
+
+    IThrowableProxy throwableProxy = event.getThrowableProxy();
+    if (throwableProxy instanceof ThrowableProxy) {
+      Throwable throwable = ((ThrowableProxy)throwableProxy).getThrowable();
+      // String stackTrace = ThrowableProxyUtil.asString(throwableProxy);
+      if (throwable != null) {
+        errorCapture.putErrorFields(logs, throwable);
+      }
+    }
+    return logs;
+  }
+
+  private static long timestampMicros(ILoggingEvent event) {
+    return TimeUnit.MICROSECONDS.convert(event.getTimeStamp(), TimeUnit.MILLISECONDS);
+  }
+
+  private void drainLoop() {
+    Thread current = Thread.currentThread();
+    while (drainer == current) {
+      if (drain() == 0) {
+        drainerIdle = true;
+        // an event offered before the flag was set would not wake the drainer up
+        if (drain() == 0) {
+          LockSupport.parkNanos(this, IDLE_PARK_NANOS);
         }
+        drainerIdle = false;
       }
-      span.log(TimeUnit.MICROSECONDS.convert(event.getTimeStamp(), TimeUnit.MILLISECONDS), logs);
     }
+    drain();
+  }
+
+  private int drain() {
+    int drained = 0;
+    int batchSize;
+    do {
+      batchSize = ringBuffer.drain(this::addToBatch, DRAIN_BATCH_SIZE);
+      batch.forEach(this::logSafely);
+      batch.clear();
+      drained += batchSize;
+    } while (batchSize == DRAIN_BATCH_SIZE);
+    return drained;
+  }
+
+  private void addToBatch(Span span, ILoggingEvent event) {
+    batch.computeIfAbsent(span, key -> new ArrayList<>(4)).add(event);
+  }
+
+  private void logSafely(Span span, List<ILoggingEvent> events) {
+    try {
+      if (events.size() == 1) {
+        log(span, events.get(0));
+      } else {
+        span.log(timestampMicros(events.get(0)), batchFields(events));
+      }
+    } catch (RuntimeException ex) {
+      if (rejected.sum() == 0) {
+        addError("Failed to add logs to span, further failures are only counted", ex);
+      }
+      rejected.add(events.size());
+    }
+  }
+
+  private Map<String, Object> batchFields(List<ILoggingEvent> events) {
+    List<Map<String, Object>> logs = new ArrayList<>(events.size());
+    boolean error = false;
+    for (ILoggingEvent event : events) {
+      Map<String, Object> fields = fields(event);
+      fields.put("timestamp", timestampMicros(event));
+      logs.add(fields);
+      error |= Level.ERROR.equals(event.getLevel());
+    }
+    Map<String, Object> fields = new HashMap<>(4);
+    if (error) {
+      fields.put("event", Tags.ERROR.getKey());
+    }
+    fields.put("logs", logs);
+    return fields;
   }
 }
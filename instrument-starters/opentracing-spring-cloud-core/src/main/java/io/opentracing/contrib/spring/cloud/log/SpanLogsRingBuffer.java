@@ -0,0 +1,102 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.log;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import io.opentracing.Span;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Bounded multi-producer single-consumer ring buffer of logging events and the spans they are
+ * logged to. Slots are preallocated and reused, offering an event does not allocate and never
+ * blocks, it fails when the buffer is full.
+ */
+final class SpanLogsRingBuffer {
+
+  private static final class Slot {
+    /**
+     * Position the slot is ready to be written at, or the position plus one once written.
+     */
+    volatile long sequence;
+    Span span;
+    ILoggingEvent event;
+  }
+
+  private final Slot[] slots;
+  private final int mask;
+  private final AtomicLong tail = new AtomicLong();
+  private long head;
+
+  SpanLogsRingBuffer(int capacity) {
+    int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+    this.slots = new Slot[size];
+    this.mask = size - 1;
+    for (int i = 0; i < size; i++) {
+      slots[i] = new Slot();
+      slots[i].sequence = i;
+    }
+  }
+
+  int capacity() {
+    return slots.length;
+  }
+
+  boolean offer(Span span, ILoggingEvent event) {
+    long position = tail.get();
+    Slot slot;
+    while (true) {
+      slot = slots[(int) (position & mask)];
+      long difference = slot.sequence - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          break;
+        }
+        position = tail.get();
+      } else if (difference < 0) {
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+    slot.span = span;
+    slot.event = event;
+    slot.sequence = position + 1;
+    return true;
+  }
+
+  /**
+   * Must only be called from the consumer thread.
+   *
+   * @return number of events passed to the consumer, at most {@code max}
+   */
+  int drain(BiConsumer<Span, ILoggingEvent> consumer, int max) {
+    int drained = 0;
+    while (drained < max) {
+      Slot slot = slots[(int) (head & mask)];
+      if (slot.sequence != head + 1) {
+        break;
+      }
+      Span span = slot.span;
+      ILoggingEvent event = slot.event;
+      slot.span = null;
+      slot.event = null;
+      slot.sequence = head + slots.length;
+      head++;
+      consumer.accept(span, event);
+      drained++;
+    }
+    return drained;
+  }
+}
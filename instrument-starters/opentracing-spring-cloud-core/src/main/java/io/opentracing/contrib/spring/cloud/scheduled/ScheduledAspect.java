@@ -20,7 +20,9 @@ import io.opentracing.contrib.spring.cloud.ExtensionTags;
 import io.opentracing.contrib.spring.cloud.SpanUtils;
 import io.opentracing.contrib.spring.cloud.aop.BaseTracingAspect;
 import io.opentracing.contrib.spring.cloud.aop.MethodInterceptorSpanDecorator;
+import io.opentracing.contrib.spring.cloud.aop.MethodSpanSampler;
 import io.opentracing.tag.Tags;
+import java.time.Duration;
 import java.util.List;
 import java.util.regex.Pattern;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -35,13 +37,25 @@ import org.springframework.scheduling.annotation.Scheduled;
 public class ScheduledAspect extends BaseTracingAspect {
 
   private Tracer tracer;
+  private final Duration minDuration;
 
   public ScheduledAspect(Tracer tracer, ScheduledTracingProperties scheduledTracingProperties, List<MethodInterceptorSpanDecorator> decorators) {
-    super(tracer, decorators, Scheduled.class, Pattern.compile(scheduledTracingProperties.getSkipPattern()));
+    this(tracer, scheduledTracingProperties, decorators, null);
+  }
+
+  public ScheduledAspect(Tracer tracer, ScheduledTracingProperties scheduledTracingProperties,
+      List<MethodInterceptorSpanDecorator> decorators, MethodSpanSampler sampler) {
+    super(tracer, decorators, Scheduled.class, Pattern.compile(scheduledTracingProperties.getSkipPattern()), sampler);
+    this.minDuration = scheduledTracingProperties.getMinDuration();
   }
 
   @Around("execution (@org.springframework.scheduling.annotation.Scheduled  * *.*(..))")
   public Object trace(final ProceedingJoinPoint pjp) throws Throwable {
     return this.internalTrace(pjp);
   }
+
+  @Override
+  protected Duration getMinDuration(ProceedingJoinPoint pjp) {
+    return minDuration;
+  }
 }
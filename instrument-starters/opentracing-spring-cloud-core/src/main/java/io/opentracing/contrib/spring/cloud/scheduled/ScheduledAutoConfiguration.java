@@ -16,6 +16,9 @@ package io.opentracing.contrib.spring.cloud.scheduled;
 import io.opentracing.Tracer;
 
 import io.opentracing.contrib.spring.cloud.aop.MethodInterceptorSpanDecorator;
+import io.opentracing.contrib.spring.cloud.aop.MethodSpanSampler;
+import io.opentracing.contrib.spring.cloud.aop.RateLimitingMethodSpanSampler;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
 import io.opentracing.contrib.spring.tracer.configuration.TracerAutoConfiguration;
 import java.util.ArrayList;
 import java.util.List;
@@ -46,9 +49,11 @@ public class ScheduledAutoConfiguration {
   }
 
   @Bean
-  public ScheduledAspect scheduledAspect(Tracer tracer, ScheduledTracingProperties scheduledTracingProperties) {
+  public ScheduledAspect scheduledAspect(Tracer tracer, ScheduledTracingProperties scheduledTracingProperties,
+      ObjectProvider<MethodSpanSampler> methodSpanSampler, ObjectProvider<ErrorCapture> errorCapture) {
     List<MethodInterceptorSpanDecorator> spanDecorators = new ArrayList<>();
-    spanDecorators.add(new MethodInterceptorSpanDecorator.StandardTags());
+    spanDecorators.add(new MethodInterceptorSpanDecorator.StandardTags(
+        errorCapture.getIfAvailable(ErrorCapture::noDeduplication)));
 
     List<MethodInterceptorSpanDecorator> providedDecorators = this.methodInterceptorSpanDecorators.getIfAvailable();
     if (!CollectionUtils.isEmpty(providedDecorators)) {
@@ -57,6 +62,11 @@ public class ScheduledAutoConfiguration {
       spanDecorators.addAll(providedDecorators);
     }
 
-    return new ScheduledAspect(tracer, scheduledTracingProperties, spanDecorators);
+    MethodSpanSampler sampler = methodSpanSampler.getIfAvailable(() -> {
+      Double maxSpansPerSecond = scheduledTracingProperties.getMaxSpansPerSecond();
+      return maxSpansPerSecond != null ? new RateLimitingMethodSpanSampler(maxSpansPerSecond,
+          scheduledTracingProperties.getInitialSpans()) : null;
+    });
+    return new ScheduledAspect(tracer, scheduledTracingProperties, spanDecorators, sampler);
   }
 }
@@ -13,6 +13,7 @@
  */
 package io.opentracing.contrib.spring.cloud.scheduled;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -30,6 +31,25 @@ public class ScheduledTracingProperties {
    */
   private String skipPattern = "";
 
+  /**
+   * Minimum duration of methods annotated with {@link org.springframework.scheduling.annotation.Scheduled} to be reported. Faster spans are
+   * marked with {@code sampling.priority=0} unless they failed or have a reported child span of a tracing aspect.
+   * All spans are reported when not set.
+   */
+  private Duration minDuration;
+
+  /**
+   * Maximum number of spans per second of each method annotated with
+   * {@link org.springframework.scheduling.annotation.Scheduled}, failing invocations are always traced. Not limited
+   * when not set.
+   */
+  private Double maxSpansPerSecond;
+
+  /**
+   * Number of first invocations of each method which are traced regardless of {@code maxSpansPerSecond}.
+   */
+  private int initialSpans = 10;
+
   public boolean isEnabled() {
     return enabled;
   }
@@ -45,4 +65,28 @@ public class ScheduledTracingProperties {
   public void setSkipPattern(String skipPattern) {
     this.skipPattern = skipPattern;
   }
+
+  public Duration getMinDuration() {
+    return minDuration;
+  }
+
+  public void setMinDuration(Duration minDuration) {
+    this.minDuration = minDuration;
+  }
+
+  public Double getMaxSpansPerSecond() {
+    return maxSpansPerSecond;
+  }
+
+  public void setMaxSpansPerSecond(Double maxSpansPerSecond) {
+    this.maxSpansPerSecond = maxSpansPerSecond;
+  }
+
+  public int getInitialSpans() {
+    return initialSpans;
+  }
+
+  public void setInitialSpans(int initialSpans) {
+    this.initialSpans = initialSpans;
+  }
 }
@@ -16,20 +16,31 @@ package io.opentracing.contrib.spring.cloud.traced;
 import io.opentracing.Tracer;
 import io.opentracing.contrib.spring.cloud.aop.BaseTracingAspect;
 import io.opentracing.contrib.spring.cloud.aop.MethodInterceptorSpanDecorator;
+import io.opentracing.contrib.spring.cloud.aop.MethodSpanSampler;
 import io.opentracing.contrib.spring.cloud.aop.Traced;
+import java.time.Duration;
 import java.util.List;
 import java.util.regex.Pattern;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.core.annotation.AnnotationUtils;
 
 @Aspect
 public class TracedAspect extends BaseTracingAspect {
 
+  private final Duration minDuration;
+
   public TracedAspect(Tracer tracer, TracedTracingProperties tracedTracingProperties, List<MethodInterceptorSpanDecorator> decorators) {
-    super(tracer, decorators, Traced.class, Pattern.compile(tracedTracingProperties.getSkipPattern()));
+    this(tracer, tracedTracingProperties, decorators, null);
+  }
+
+  public TracedAspect(Tracer tracer, TracedTracingProperties tracedTracingProperties,
+      List<MethodInterceptorSpanDecorator> decorators, MethodSpanSampler sampler) {
+    super(tracer, decorators, Traced.class, Pattern.compile(tracedTracingProperties.getSkipPattern()), sampler);
+    this.minDuration = tracedTracingProperties.getMinDuration();
   }
 
   private Traced findAnnotation(ProceedingJoinPoint pjp) {
@@ -56,4 +67,20 @@ public class TracedAspect extends BaseTracingAspect {
     }
     return operationName;
   }
+
+  @Override
+  protected Duration getMinDuration(ProceedingJoinPoint pjp) {
+    String minDuration = findAnnotation(pjp).minDuration();
+    if (minDuration == null || "".equals(minDuration)) {
+      return this.minDuration;
+    }
+    return parseMinDuration(minDuration);
+  }
+
+  /**
+   * Values are validated when beans are created by {@link TracedMinDurationValidator}.
+   */
+  static Duration parseMinDuration(String minDuration) {
+    return DurationStyle.detectAndParse(minDuration);
+  }
 }
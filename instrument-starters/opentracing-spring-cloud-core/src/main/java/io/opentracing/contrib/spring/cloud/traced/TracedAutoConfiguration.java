@@ -15,6 +15,9 @@ package io.opentracing.contrib.spring.cloud.traced;
 
 import io.opentracing.Tracer;
 import io.opentracing.contrib.spring.cloud.aop.MethodInterceptorSpanDecorator;
+import io.opentracing.contrib.spring.cloud.aop.MethodSpanSampler;
+import io.opentracing.contrib.spring.cloud.aop.RateLimitingMethodSpanSampler;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
 import io.opentracing.contrib.spring.tracer.configuration.TracerAutoConfiguration;
 import java.util.ArrayList;
 import java.util.List;
@@ -49,9 +52,11 @@ public class TracedAutoConfiguration {
 
   @Bean
   @ConditionalOnMissingBean
-  public TracedAspect tracedAspect(Tracer tracer, TracedTracingProperties tracedTracingProperties) {
+  public TracedAspect tracedAspect(Tracer tracer, TracedTracingProperties tracedTracingProperties,
+      ObjectProvider<MethodSpanSampler> methodSpanSampler, ObjectProvider<ErrorCapture> errorCapture) {
     List<MethodInterceptorSpanDecorator> spanDecorators = new ArrayList<>();
-    spanDecorators.add(new MethodInterceptorSpanDecorator.StandardTags());
+    spanDecorators.add(new MethodInterceptorSpanDecorator.StandardTags(
+        errorCapture.getIfAvailable(ErrorCapture::noDeduplication)));
 
     List<MethodInterceptorSpanDecorator> decorators = this.methodInterceptorSpanDecorators
         .getIfAvailable();
@@ -61,7 +66,17 @@ public class TracedAutoConfiguration {
       spanDecorators.addAll(decorators);
     }
 
-    return new TracedAspect(tracer, tracedTracingProperties, spanDecorators);
+    MethodSpanSampler sampler = methodSpanSampler.getIfAvailable(() -> {
+      Double maxSpansPerSecond = tracedTracingProperties.getMaxSpansPerSecond();
+      return maxSpansPerSecond != null ? new RateLimitingMethodSpanSampler(maxSpansPerSecond,
+          tracedTracingProperties.getInitialSpans()) : null;
+    });
+    return new TracedAspect(tracer, tracedTracingProperties, spanDecorators, sampler);
+  }
+
+  @Bean
+  public static TracedMinDurationValidator tracedMinDurationValidator() {
+    return new TracedMinDurationValidator();
   }
 
 }
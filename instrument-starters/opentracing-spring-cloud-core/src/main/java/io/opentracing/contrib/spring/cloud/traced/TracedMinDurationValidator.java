@@ -0,0 +1,46 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.traced;
+
+import io.opentracing.contrib.spring.cloud.aop.Traced;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Fails the creation of beans whose {@link Traced#minDuration()} cannot be parsed, rather than
+ * their first traced invocation.
+ */
+class TracedMinDurationValidator implements BeanPostProcessor {
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+    ReflectionUtils.doWithMethods(ClassUtils.getUserClass(bean), method -> {
+      Traced traced = AnnotationUtils.findAnnotation(method, Traced.class);
+      if (traced != null && !traced.minDuration().isEmpty()) {
+        try {
+          TracedAspect.parseMinDuration(traced.minDuration());
+        } catch (IllegalArgumentException ex) {
+          throw new BeanInitializationException("Invalid @Traced(minDuration = \""
+              + traced.minDuration() + "\") on " + method + " of bean '" + beanName + "'", ex);
+        }
+      }
+    }, ReflectionUtils.USER_DECLARED_METHODS);
+    return bean;
+  }
+}
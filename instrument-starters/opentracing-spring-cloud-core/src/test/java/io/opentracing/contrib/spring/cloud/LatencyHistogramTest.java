@@ -0,0 +1,47 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+public class LatencyHistogramTest implements WithAssertions {
+
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  @Test
+  public void givenNoRecords_whenRead_thenValuesAreZero() {
+    assertThat(histogram.getCount()).isZero();
+    assertThat(histogram.getMean()).isEqualTo(Duration.ZERO);
+    assertThat(histogram.getPercentile(0.99)).isEqualTo(Duration.ZERO);
+  }
+
+  @Test
+  public void givenRecords_whenRead_thenPercentilesAreBucketUpperBounds() {
+    for (int i = 0; i < 99; i++) {
+      histogram.record(100, TimeUnit.MICROSECONDS);
+    }
+    histogram.record(10, TimeUnit.MILLISECONDS);
+
+    assertThat(histogram.getCount()).isEqualTo(100);
+    assertThat(histogram.getMax()).isEqualTo(Duration.ofMillis(10));
+    assertThat(histogram.getMean()).isEqualTo(Duration.ofNanos(199_000));
+    // 100us falls into [64us, 128us)
+    assertThat(histogram.getPercentile(0.5)).isEqualTo(Duration.ofNanos(128_000));
+    assertThat(histogram.getPercentile(0.99)).isEqualTo(Duration.ofNanos(128_000));
+    assertThat(histogram.getPercentile(1)).isEqualTo(Duration.ofMillis(10));
+  }
+}
@@ -19,13 +19,16 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.opentracing.Scope;
 import io.opentracing.Span;
 import io.opentracing.Tracer;
+import io.opentracing.mock.MockSpan;
 import io.opentracing.mock.MockTracer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
@@ -122,18 +125,97 @@ public class BaseTracingAspectTest implements WithAssertions {
     verify(decorator).onError(same(pjp), same(e), Matchers.<Span>any());
   }
 
+  @Test
+  public void givenRepeatedInvocations_whenMethodIsIntercepted_thenMetadataShouldBeResolvedOnce()
+      throws Throwable {
+    aspect.trace(pjp);
+    aspect.trace(pjp);
+    aspect.trace(pjp);
+
+    assertThat(aspect.resolvedMetadata).isEqualTo(1);
+    assertThat(tracer.finishedSpans()).hasSize(3);
+    assertThat(tracer.finishedSpans().get(2).operationName()).isEqualTo("toString");
+  }
+
+  @Test
+  public void givenRejectingSampler_whenMethodIsIntercepted_thenNoSpanIsCreated()
+      throws Throwable {
+    aspect = new TestTracingAspect(tracer, decorators, Component.class,
+        (operationName, method) -> () -> false);
+
+    assertThat(aspect.trace(pjp)).isSameAs(result);
+
+    assertThat(tracer.finishedSpans()).isEmpty();
+    verify(decorator, never()).onPreProceed(any(ProceedingJoinPoint.class), any(Span.class));
+  }
+
+  @Test
+  public void givenRejectingSampler_whenMethodFails_thenSpanIsReported() throws Throwable {
+    aspect = new TestTracingAspect(tracer, decorators, Component.class,
+        (operationName, method) -> () -> false);
+    RuntimeException e = new RuntimeException();
+    when(pjp.proceed()).thenThrow(e);
+
+    assertThatThrownBy(() -> aspect.trace(pjp)).isSameAs(e);
+
+    assertThat(tracer.finishedSpans()).hasSize(1);
+    assertThat(tracer.finishedSpans().get(0).operationName()).isEqualTo("toString");
+    verify(decorator).onError(same(pjp), same(e), Matchers.<Span>any());
+  }
+
+  @Test
+  public void givenRejectingSampler_whenFutureFailsOnAnotherThread_thenSpanIsChildOfCaller()
+      throws Throwable {
+    aspect = new TestTracingAspect(tracer, decorators, Component.class,
+        (operationName, method) -> () -> false);
+    when(methodSignature.getMethod()).thenReturn(
+        CompletableFuture.class.getMethod("toCompletableFuture"));
+    CompletableFuture<String> future = new CompletableFuture<>();
+    when(pjp.proceed()).thenReturn(future);
+
+    MockSpan caller = tracer.buildSpan("caller").start();
+    try (Scope ignored = tracer.activateSpan(caller)) {
+      aspect.trace(pjp);
+    }
+    Thread completing = new Thread(() -> {
+      MockSpan other = tracer.buildSpan("other").start();
+      try (Scope ignored = tracer.activateSpan(other)) {
+        future.completeExceptionally(new IllegalStateException());
+      }
+    });
+    completing.start();
+    completing.join();
+
+    assertThat(tracer.finishedSpans()).hasSize(1);
+    assertThat(tracer.finishedSpans().get(0).operationName()).isEqualTo("toCompletableFuture");
+    assertThat(tracer.finishedSpans().get(0).parentId()).isEqualTo(caller.context().spanId());
+  }
+
   public static class TestTracingAspect extends BaseTracingAspect {
 
+    private int resolvedMetadata;
+
     public TestTracingAspect(Tracer tracer, List<MethodInterceptorSpanDecorator> decorators,
         Class<? extends Annotation> annotation) {
       super(tracer, decorators, annotation, Pattern.compile(""));
     }
 
+    public TestTracingAspect(Tracer tracer, List<MethodInterceptorSpanDecorator> decorators,
+        Class<? extends Annotation> annotation, MethodSpanSampler sampler) {
+      super(tracer, decorators, annotation, Pattern.compile(""), sampler);
+    }
+
     @Override
     public Object trace(ProceedingJoinPoint pjp) throws Throwable {
       return super.internalTrace(pjp);
     }
 
+    @Override
+    protected MethodSpanMetadata resolveMetadata(ProceedingJoinPoint pjp, Class<?> targetClass) {
+      resolvedMetadata++;
+      return super.resolveMetadata(pjp, targetClass);
+    }
+
   }
 
 }
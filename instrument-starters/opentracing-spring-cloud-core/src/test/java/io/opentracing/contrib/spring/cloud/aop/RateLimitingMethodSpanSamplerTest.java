@@ -0,0 +1,66 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.aop;
+
+import io.opentracing.contrib.spring.cloud.aop.MethodSpanSampler.Sampler;
+import java.lang.reflect.Method;
+import org.assertj.core.api.WithAssertions;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RateLimitingMethodSpanSamplerTest implements WithAssertions {
+
+  private Method method;
+
+  @Before
+  public void init() throws Exception {
+    method = Object.class.getMethod("toString");
+  }
+
+  @Test
+  public void givenInitialSpans_whenSampled_thenFirstInvocationsAreSampled() {
+    Sampler sampler = new RateLimitingMethodSpanSampler(0.001, 3).forMethod("op", method);
+
+    assertThat(sampler.sample()).isTrue();
+    assertThat(sampler.sample()).isTrue();
+    assertThat(sampler.sample()).isTrue();
+    // a single token is available
+    assertThat(sampler.sample()).isTrue();
+    assertThat(sampler.sample()).isFalse();
+  }
+
+  @Test
+  public void givenRateLimit_whenSampledInBurst_thenAtMostOneSecondOfSpansIsSampled() {
+    Sampler sampler = new RateLimitingMethodSpanSampler(100, 0).forMethod("op", method);
+
+    int sampled = 0;
+    for (int i = 0; i < 1000; i++) {
+      if (sampler.sample()) {
+        sampled++;
+      }
+    }
+    assertThat(sampled).isBetween(100, 110);
+  }
+
+  @Test
+  public void givenSameOperation_whenMethodsDiffer_thenBucketsAreSeparate() throws Exception {
+    RateLimitingMethodSpanSampler sampler = new RateLimitingMethodSpanSampler(1, 0);
+    MethodSpanSampler.Sampler first = sampler.forMethod("op", method);
+    MethodSpanSampler.Sampler second = sampler.forMethod("op", Object.class.getMethod("hashCode"));
+
+    assertThat(first.sample()).isTrue();
+    assertThat(first.sample()).isFalse();
+    assertThat(second.sample()).isTrue();
+  }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.async;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.opentracing.contrib.concurrent.TracedExecutor;
+import io.opentracing.mock.MockTracer;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.aopalliance.intercept.MethodInvocation;
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+public class ExecutorMethodInterceptorTest implements WithAssertions {
+
+  private final MockTracer tracer = new MockTracer();
+
+  @Test
+  public void givenRepeatedInvocations_whenIntercepted_thenTracedExecutorShouldBeCreatedOnce()
+      throws Throwable {
+    RecordingExecutor delegate = new RecordingExecutor();
+    AtomicInteger created = new AtomicInteger();
+    ExecutorMethodInterceptor<Executor> interceptor = new ExecutorMethodInterceptor<>(delegate,
+        (executor, tracer) -> {
+          created.incrementAndGet();
+          return new TracedExecutor(executor, tracer);
+        }, tracer);
+
+    Runnable task = () -> { };
+    MethodInvocation invocation = invocation(Executor.class.getMethod("execute", Runnable.class), task);
+    interceptor.invoke(invocation);
+    interceptor.invoke(invocation);
+
+    assertThat(created.get()).isEqualTo(1);
+    assertThat(delegate.executed).containsExactly(task, task);
+  }
+
+  @Test
+  public void givenMethodMissingOnTracedExecutor_whenIntercepted_thenInvocationShouldProceed()
+      throws Throwable {
+    ExecutorMethodInterceptor<Executor> interceptor = new ExecutorMethodInterceptor<>(
+        new RecordingExecutor(), TracedExecutor::new, tracer);
+
+    MethodInvocation invocation = invocation(RecordingExecutor.class.getMethod("size"));
+    when(invocation.proceed()).thenReturn(5);
+
+    assertThat(interceptor.invoke(invocation)).isEqualTo(5);
+    verify(invocation).proceed();
+  }
+
+  private static MethodInvocation invocation(Method method, Object... arguments) {
+    MethodInvocation invocation = mock(MethodInvocation.class);
+    when(invocation.getMethod()).thenReturn(method);
+    when(invocation.getArguments()).thenReturn(arguments);
+    return invocation;
+  }
+
+  public static class RecordingExecutor implements Executor {
+
+    private final List<Runnable> executed = new ArrayList<>();
+
+    @Override
+    public void execute(Runnable command) {
+      executed.add(command);
+    }
+
+    public int size() {
+      return executed.size();
+    }
+  }
+}
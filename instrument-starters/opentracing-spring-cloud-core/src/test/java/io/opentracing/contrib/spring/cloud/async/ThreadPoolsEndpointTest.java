@@ -0,0 +1,61 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.async;
+
+import io.opentracing.contrib.spring.cloud.MockTracingConfiguration;
+import java.util.Map;
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@SpringBootTest(classes = {MockTracingConfiguration.class, ThreadPoolsEndpointTest.Configuration.class},
+    properties = {"management.endpoints.web.exposure.include=threadpools",
+        "opentracing.spring.cloud.async.recordQueueWait=true"})
+@RunWith(SpringJUnit4ClassRunner.class)
+public class ThreadPoolsEndpointTest implements WithAssertions {
+
+  @org.springframework.context.annotation.Configuration
+  static class Configuration {
+
+    @Bean
+    public ThreadPoolTaskExecutor endpointTestExecutor() {
+      ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+      executor.initialize();
+      return executor;
+    }
+  }
+
+  @Autowired
+  private ThreadPoolsEndpoint endpoint;
+  @Autowired
+  private ThreadPoolTaskExecutor endpointTestExecutor;
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void givenTracedThreadPool_whenEndpointIsRead_thenPoolStatsAreExposed() throws Exception {
+    endpointTestExecutor.submit(() -> { }).get();
+
+    Map<String, Map<String, Object>> threadPools = endpoint.threadPools();
+    assertThat(threadPools).containsKey("endpointTestExecutor");
+    Map<String, Object> stats = threadPools.get("endpointTestExecutor");
+    assertThat(stats).containsKeys("activeCount", "queueSize", "completedTasksPerSecond",
+        "rejectedTaskCount");
+    assertThat((Map<String, Object>) stats.get("queueWait")).containsEntry("count", 1L);
+  }
+}
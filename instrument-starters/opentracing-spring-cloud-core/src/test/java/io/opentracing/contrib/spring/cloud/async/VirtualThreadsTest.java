@@ -0,0 +1,71 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.async;
+
+import static org.junit.Assume.assumeNotNull;
+
+import io.opentracing.Scope;
+import io.opentracing.Span;
+import io.opentracing.mock.MockTracer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+public class VirtualThreadsTest implements WithAssertions {
+
+  private final MockTracer tracer = new MockTracer();
+
+  @Test
+  public void givenThreadPool_whenChecked_thenItIsNotThreadPerTaskExecutor() {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      assertThat(VirtualThreads.isThreadPerTaskExecutor(executor)).isFalse();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void givenVirtualThreads_whenThreadIsCreated_thenItIsVirtual() throws Exception {
+    ThreadFactory threadFactory = VirtualThreads.threadFactory("test-");
+    assumeNotNull(threadFactory);
+
+    Thread thread = threadFactory.newThread(() -> { });
+    assertThat(thread.getName()).isEqualTo("test-0");
+    assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+  }
+
+  @Test
+  public void givenVirtualThreadPerTaskExecutor_whenPostProcessed_thenSpanIsPropagated()
+      throws Exception {
+    assumeNotNull(VirtualThreads.threadFactory("test-"));
+    ExecutorService executor = (ExecutorService) Executors.class
+        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    assertThat(VirtualThreads.isThreadPerTaskExecutor(executor)).isTrue();
+
+    ExecutorService traced = (ExecutorService) new ExecutorBeanPostProcessor(tracer)
+        .postProcessAfterInitialization(executor, "executor");
+    Span span = tracer.buildSpan("parent").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      Future<Span> activeSpan = traced.submit(tracer::activeSpan);
+      assertThat(activeSpan.get()).isSameAs(span);
+    } finally {
+      span.finish();
+      traced.shutdown();
+    }
+  }
+}
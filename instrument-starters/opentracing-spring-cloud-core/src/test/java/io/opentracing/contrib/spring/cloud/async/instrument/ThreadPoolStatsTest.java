@@ -0,0 +1,111 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.async.instrument;
+
+import io.opentracing.Scope;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+public class ThreadPoolStatsTest implements WithAssertions {
+
+  private final MockTracer tracer = new MockTracer();
+  private final ThreadPoolTaskExecutor delegate = new ThreadPoolTaskExecutor();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private TracedThreadPoolTaskExecutor executor;
+
+  @Before
+  public void init() {
+    delegate.setCorePoolSize(1);
+    delegate.setMaxPoolSize(1);
+    delegate.setQueueCapacity(1);
+    delegate.initialize();
+    executor = new TracedThreadPoolTaskExecutor(tracer, delegate, false, 1);
+  }
+
+  @After
+  public void shutdown() {
+    release.countDown();
+    delegate.shutdown();
+  }
+
+  @Test
+  public void givenFullPool_whenTaskIsRejected_thenRejectionIsCounted() {
+    executor.execute(this::awaitRelease);
+    executor.execute(this::awaitRelease);
+
+    assertThatThrownBy(() -> executor.execute(this::awaitRelease))
+        .isInstanceOf(RejectedExecutionException.class);
+
+    Map<String, Object> stats = executor.getThreadPoolStats().sample();
+    assertThat(stats).containsEntry("poolSize", 1)
+        .containsEntry("queueSize", 1)
+        .containsEntry("queueRemainingCapacity", 0)
+        .containsEntry("rejectedTaskCount", 1L)
+        .doesNotContainKey("queueWait");
+  }
+
+  @Test
+  public void givenDiscardingHandler_whenTaskIsRejected_thenRejectionIsCounted() {
+    delegate.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+    executor.afterPropertiesSet();
+    executor.execute(this::awaitRelease);
+    executor.execute(this::awaitRelease);
+
+    executor.execute(this::awaitRelease);
+
+    assertThat(executor.getThreadPoolStats().getRejectedCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void givenQueueAboveThreshold_whenTaskIsSubmitted_thenActiveSpanIsTagged() {
+    executor.execute(this::awaitRelease);
+    executor.execute(this::awaitRelease);
+
+    MockSpan span = tracer.buildSpan("submit").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      assertThatThrownBy(() -> executor.submit(this::awaitRelease))
+          .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    assertThat(span.tags()).containsEntry(ThreadPoolStats.QUEUE_SIZE_TAG.getKey(), 1)
+        .containsEntry(ThreadPoolStats.POOL_SIZE_TAG.getKey(), 1);
+  }
+
+  @Test
+  public void givenQueueBelowThreshold_whenTaskIsSubmitted_thenActiveSpanIsNotTagged() {
+    MockSpan span = tracer.buildSpan("submit").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      executor.execute(() -> { });
+    }
+
+    assertThat(span.tags()).doesNotContainKey(ThreadPoolStats.QUEUE_SIZE_TAG.getKey());
+  }
+
+  private void awaitRelease() {
+    try {
+      release.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.async.instrument;
+
+import io.opentracing.Scope;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+public class TracedThreadPoolTaskExecutorTest implements WithAssertions {
+
+  private final MockTracer tracer = new MockTracer();
+  private final ThreadPoolTaskExecutor delegate = new ThreadPoolTaskExecutor();
+
+  @Before
+  public void init() {
+    delegate.setCorePoolSize(1);
+    delegate.initialize();
+  }
+
+  @After
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Test
+  public void givenQueueWaitRecording_whenTaskIsSubmitted_thenWaitIsReportedAsChildSpan()
+      throws Exception {
+    TracedThreadPoolTaskExecutor executor = new TracedThreadPoolTaskExecutor(tracer, delegate, true);
+
+    MockSpan parent = tracer.buildSpan("parent").start();
+    try (Scope scope = tracer.activateSpan(parent)) {
+      executor.submit(() -> "done").get(5, TimeUnit.SECONDS);
+    } finally {
+      parent.finish();
+    }
+
+    MockSpan queueSpan = tracer.finishedSpans().get(0);
+    assertThat(queueSpan.operationName()).isEqualTo(QueueWaitRecorder.OPERATION_NAME);
+    assertThat(queueSpan.parentId()).isEqualTo(parent.context().spanId());
+    assertThat(executor.getQueueWaitHistogram().getCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void givenQueueWaitRecording_whenTaskHasNoActiveSpan_thenWaitIsOnlyRecorded()
+      throws Exception {
+    TracedThreadPoolTaskExecutor executor = new TracedThreadPoolTaskExecutor(tracer, delegate, true);
+
+    executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+
+    assertThat(tracer.finishedSpans()).isEmpty();
+    assertThat(executor.getQueueWaitHistogram().getCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void givenDefaultExecutor_whenTaskIsSubmitted_thenQueueWaitIsNotRecorded()
+      throws Exception {
+    TracedThreadPoolTaskExecutor executor = new TracedThreadPoolTaskExecutor(tracer, delegate);
+
+    MockSpan parent = tracer.buildSpan("parent").start();
+    try (Scope scope = tracer.activateSpan(parent)) {
+      executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    assertThat(tracer.finishedSpans()).isEmpty();
+    assertThat(executor.getQueueWaitHistogram()).isNull();
+  }
+}
@@ -15,9 +15,12 @@ package io.opentracing.contrib.spring.cloud.async.instrument;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import io.opentracing.Span;
 import io.opentracing.Tracer;
 import io.opentracing.contrib.concurrent.TracedCallable;
 import io.opentracing.contrib.concurrent.TracedRunnable;
@@ -29,6 +32,7 @@ import java.util.Date;
 import java.util.concurrent.Callable;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadFactory;
+import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.scheduling.Trigger;
@@ -66,6 +70,11 @@ public class TracedThreadPoolTaskSchedulerTest {
   private final TracedThreadPoolTaskScheduler scheduler = new TracedThreadPoolTaskScheduler(
       mockTracer, delegate);
 
+  @Before
+  public void activeSpan() {
+    when(mockTracer.activeSpan()).thenReturn(mock(Span.class));
+  }
+
   @Test
   public void setPoolSize() {
     scheduler.setPoolSize(10);
@@ -93,6 +102,8 @@ public class TracedThreadPoolTaskSchedulerTest {
 
   @Test
   public void getScheduledThreadPoolExecutor() {
+    // read once on construction to count rejections
+    clearInvocations(delegate);
     scheduler.getScheduledThreadPoolExecutor();
     verify(delegate).getScheduledThreadPoolExecutor();
   }
@@ -262,6 +273,27 @@ public class TracedThreadPoolTaskSchedulerTest {
     verifyTracedRunnable(argumentCaptor.getValue(), mockRunnable, mockTracer);
   }
 
+  @Test
+  public void executeWithoutActiveSpan() {
+    when(mockTracer.activeSpan()).thenReturn(null);
+    scheduler.execute(mockRunnable);
+    verify(delegate).execute(mockRunnable);
+  }
+
+  @Test
+  public void submitCallableWithoutActiveSpan() {
+    when(mockTracer.activeSpan()).thenReturn(null);
+    scheduler.submit(mockCallable);
+    verify(delegate).submit(mockCallable);
+  }
+
+  @Test
+  public void scheduleWithFixedDelayWithoutActiveSpan() {
+    when(mockTracer.activeSpan()).thenReturn(null);
+    scheduler.scheduleWithFixedDelay(mockRunnable, 1000L);
+    verify(delegate).scheduleWithFixedDelay(mockRunnable, 1000L);
+  }
+
   private void verifyTracedRunnable(final TracedRunnable tracedRunnable, final Runnable task, final Tracer tracer) {
     final Runnable actualTask = (Runnable) ReflectionUtils.getField(TRACED_RUNNABLE_DELEGATE_FIELD, tracedRunnable);
     final Tracer actualTracer = (Tracer) ReflectionUtils.getField(TRACED_RUNNABLE_TRACER_FIELD, tracedRunnable);
@@ -0,0 +1,50 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.error;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@SpringBootTest(
+    classes = {ErrorCaptureAutoConfigurationTest.Config.class},
+    properties = {"opentracing.spring.cloud.error.enabled=false",
+        "opentracing.spring.cloud.error.deduplicationWindow=1m"})
+@RunWith(SpringJUnit4ClassRunner.class)
+public class ErrorCaptureAutoConfigurationTest implements WithAssertions {
+
+  @Configuration
+  @ImportAutoConfiguration(ErrorCaptureAutoConfiguration.class)
+  static class Config {
+  }
+
+  @Autowired
+  private ApplicationContext context;
+
+  @Test
+  public void givenDisabled_whenExceptionRepeats_thenItIsAlwaysLogged() {
+    assertThat(context.getBeansOfType(ErrorCapture.class)).isEmpty();
+
+    for (int i = 0; i < 2; i++) {
+      assertThat(ErrorCapture.noDeduplication().errorLogs(new RuntimeException("failure")))
+          .containsKey("error.object");
+    }
+  }
+}
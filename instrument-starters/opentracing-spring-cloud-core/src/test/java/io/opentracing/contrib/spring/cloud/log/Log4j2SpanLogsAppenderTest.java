@@ -0,0 +1,122 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.log;
+
+import io.opentracing.Scope;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.tag.Tags;
+import java.util.Map;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+public class Log4j2SpanLogsAppenderTest implements WithAssertions {
+
+  private final MockTracer tracer = new MockTracer();
+  private final Log4j2SpanLogsAppender appender = new Log4j2SpanLogsAppender(tracer);
+
+  @Test
+  public void givenActiveSpan_whenEventIsLogged_thenLogIsAttached() {
+    RuntimeException failure = new RuntimeException("failure");
+    MockSpan span = tracer.buildSpan("span").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      appender.append(Log4jLogEvent.newBuilder()
+          .setLoggerName("logger")
+          .setLevel(Level.INFO)
+          .setMessage(new ParameterizedMessage("message {}", "argument"))
+          .setTimeMillis(1000)
+          .build());
+      appender.append(Log4jLogEvent.newBuilder()
+          .setLoggerName("logger")
+          .setLevel(Level.FATAL)
+          .setMessage(new ParameterizedMessage("failure"))
+          .setThrown(failure)
+          .build());
+    }
+
+    assertThat(span.logEntries()).hasSize(2);
+    assertThat(span.logEntries().get(0).timestampMicros()).isEqualTo(1000000);
+    assertThat(fields(span, 0))
+        .containsEntry("logger", "logger")
+        .containsEntry("level", "INFO")
+        .containsEntry("message", "message argument")
+        .containsEntry("thread", Thread.currentThread().getName());
+    assertThat(fields(span, 1))
+        .containsEntry("event", Tags.ERROR.getKey())
+        .containsEntry("error.object", failure);
+    assertThat(span.tags()).containsEntry(Tags.ERROR.getKey(), true);
+  }
+
+  @Test
+  public void givenReusedEvent_whenItIsLoggedTwice_thenLogsDoNotShareState() {
+    appender.setMaxMessageLength(10);
+    MutableLogEvent event = new MutableLogEvent();
+
+    MockSpan span = tracer.buildSpan("span").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      event.setLoggerName("logger");
+      event.setLevel(Level.INFO);
+      event.setMessage(ReusableMessageFactory.INSTANCE.newMessage("first {}", "argument"));
+      appender.append(event);
+      event.setMessage(ReusableMessageFactory.INSTANCE.newMessage("second {}", 2));
+      appender.append(event);
+    }
+
+    assertThat(fields(span, 0)).containsEntry("message", "first argu...");
+    assertThat(fields(span, 1)).containsEntry("message", "second 2");
+  }
+
+  @Test
+  public void givenLogBudget_whenItIsExceeded_thenEventsAreSummarized() {
+    appender.setMaxLogsPerSpan(1);
+
+    MockSpan span = tracer.buildSpan("span").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      for (int i = 0; i < 3; i++) {
+        appender.append(Log4jLogEvent.newBuilder()
+            .setLoggerName("logger")
+            .setLevel(Level.WARN)
+            .setMessage(new ParameterizedMessage("message"))
+            .build());
+      }
+    }
+
+    assertThat(span.logEntries()).hasSize(3);
+    assertThat(fields(span, 2))
+        .containsEntry("event", SpanLogBudget.SUMMARY_EVENT)
+        .containsEntry("suppressed", 2L)
+        .containsEntry("suppressed.level.WARN", 2L)
+        .containsEntry("suppressed.logger.logger", 2L);
+  }
+
+  @Test
+  public void givenNoActiveSpan_whenEventIsLogged_thenNothingHappens() {
+    appender.append(Log4jLogEvent.newBuilder()
+        .setLevel(Level.ERROR)
+        .setMessage(new ParameterizedMessage("message"))
+        .build());
+
+    assertThat(tracer.finishedSpans()).isEmpty();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> fields(MockSpan span, int index) {
+    return (Map<String, Object>) span.logEntries().get(index).fields();
+  }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.log;
+
+import io.opentracing.Scope;
+import io.opentracing.Span;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.noop.NoopSpan;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@SpringBootTest(
+    classes = {MdcAutoConfigurationTest.Config.class},
+    properties = {"opentracing.spring.cloud.log.mdc=true", "opentracing.spring.cloud.log.mdcSpanIdKey=sid"})
+@RunWith(SpringJUnit4ClassRunner.class)
+public class MdcAutoConfigurationTest implements WithAssertions {
+
+  @Configuration
+  @ImportAutoConfiguration(MdcAutoConfiguration.class)
+  static class Config {
+    @Bean
+    public MockTracer mockTracer() {
+      return new MockTracer();
+    }
+  }
+
+  @Autowired
+  private MockTracer tracer;
+
+  @After
+  public void clear() {
+    MDC.clear();
+    tracer.reset();
+  }
+
+  @Test
+  public void givenNestedScopes_whenTheyAreClosed_thenPreviousIdsAreRestored() {
+    assertThat(tracer.scopeManager()).isInstanceOf(MdcScopeManager.class);
+    MDC.put("traceId", "previous");
+
+    Span parent = tracer.buildSpan("parent").start();
+    Span child = tracer.buildSpan("child").asChildOf(parent).start();
+    try (Scope parentScope = tracer.activateSpan(parent)) {
+      assertThat(MDC.get("traceId")).isEqualTo(parent.context().toTraceId());
+      assertThat(MDC.get("sid")).isEqualTo(parent.context().toSpanId());
+      try (Scope childScope = tracer.scopeManager().activate(child)) {
+        assertThat(tracer.activeSpan()).isSameAs(child);
+        assertThat(MDC.get("sid")).isEqualTo(child.context().toSpanId());
+      }
+      assertThat(MDC.get("sid")).isEqualTo(parent.context().toSpanId());
+    }
+
+    assertThat(MDC.get("traceId")).isEqualTo("previous");
+    assertThat(MDC.get("sid")).isNull();
+    assertThat(tracer.activeSpan()).isNull();
+  }
+
+  @Test
+  public void givenSpanWithoutIds_whenActivated_thenIdsAreCleared() {
+    Span span = tracer.buildSpan("span").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      try (Scope noopScope = tracer.activateSpan(NoopSpan.INSTANCE)) {
+        assertThat(MDC.get("traceId")).isNull();
+        assertThat(MDC.get("sid")).isNull();
+      }
+      assertThat(MDC.get("sid")).isEqualTo(span.context().toSpanId());
+    }
+  }
+
+  @Test
+  public void givenConcreteTracerInjected_whenSpanIsFinished_thenItIsRecorded() {
+    Span span = tracer.buildSpan("span").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      assertThat(MDC.get("sid")).isEqualTo(span.context().toSpanId());
+    } finally {
+      span.finish();
+    }
+
+    assertThat(tracer.finishedSpans()).extracting("operationName").containsExactly("span");
+  }
+}
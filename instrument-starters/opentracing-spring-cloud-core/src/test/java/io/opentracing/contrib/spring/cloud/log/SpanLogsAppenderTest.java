@@ -0,0 +1,235 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.log;
+
+import static org.awaitility.Awaitility.await;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import io.opentracing.Scope;
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.tag.Tags;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.WithAssertions;
+import org.junit.After;
+import org.junit.Test;
+
+public class SpanLogsAppenderTest implements WithAssertions {
+
+  private final MockTracer tracer = new MockTracer();
+  private final Logger logger = new LoggerContext().getLogger(SpanLogsAppenderTest.class);
+  private SpanLogsAppender appender;
+
+  @After
+  public void stop() {
+    if (appender != null) {
+      appender.stop();
+    }
+  }
+
+  @Test
+  public void givenAsyncMode_whenEventIsLogged_thenLogIsAttachedInBackground() {
+    appender = new SpanLogsAppender(tracer, 16);
+    appender.start();
+
+    MockSpan span = tracer.buildSpan("span").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      appender.doAppend(event(Level.INFO, "message {}", "argument"));
+      await().atMost(5, TimeUnit.SECONDS).until(() -> span.logEntries().size() == 1);
+      appender.doAppend(event(Level.ERROR, "failure"));
+    }
+
+    assertThat(span.tags()).containsEntry(Tags.ERROR.getKey(), true);
+    await().atMost(5, TimeUnit.SECONDS).until(() -> span.logEntries().size() == 2);
+    assertThat(fields(span, 0))
+        .containsEntry("message", "message argument")
+        .containsEntry("level", "INFO")
+        .containsEntry("thread", Thread.currentThread().getName());
+    assertThat(fields(span, 1)).containsEntry("event", Tags.ERROR.getKey());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void givenAsyncMode_whenSpanHasSeveralEventsInBatch_thenTheyAreAttachedAsOneLog() {
+    // not started yet, the events wait in the buffer and are drained in one batch
+    appender = new SpanLogsAppender(tracer, 16);
+
+    MockSpan span = tracer.buildSpan("span").start();
+    MockSpan other = tracer.buildSpan("other").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      appender.append(event(Level.INFO, "first"));
+      appender.append(event(Level.ERROR, "second"));
+    }
+    try (Scope scope = tracer.activateSpan(other)) {
+      appender.append(event(Level.INFO, "other"));
+    }
+    appender.start();
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> other.logEntries().size() == 1);
+    assertThat(span.logEntries()).hasSize(1);
+    assertThat(fields(span, 0)).containsEntry("event", Tags.ERROR.getKey());
+    List<Map<String, Object>> logs = (List<Map<String, Object>>) fields(span, 0).get("logs");
+    assertThat(logs).hasSize(2);
+    assertThat(logs.get(0)).containsEntry("message", "first")
+        .containsEntry("timestamp", span.logEntries().get(0).timestampMicros());
+    assertThat(logs.get(1)).containsEntry("message", "second").containsEntry("level", "ERROR");
+    assertThat(fields(other, 0)).containsEntry("message", "other");
+  }
+
+  @Test
+  public void givenAsyncMode_whenSpanFinishedBeforeDrain_thenEventsAreCounted() {
+    appender = new SpanLogsAppender(tracer, 16);
+
+    MockSpan span = tracer.buildSpan("span").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      appender.append(event(Level.INFO, "first"));
+      appender.append(event(Level.INFO, "second"));
+    }
+    // the mock tracer rejects logs of finished spans
+    span.finish();
+    appender.start();
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> appender.getRejectedCount() == 2);
+    assertThat(span.logEntries()).isEmpty();
+  }
+
+  @Test
+  public void givenAsyncMode_whenArgumentChangesAfterLogging_thenMessageIsUnchanged() {
+    // not started yet, the event waits in the buffer
+    appender = new SpanLogsAppender(tracer, 16);
+    StringBuilder argument = new StringBuilder("before");
+
+    MockSpan span = tracer.buildSpan("span").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      appender.append(event(Level.INFO, "message {}", argument));
+    }
+    argument.replace(0, argument.length(), "after");
+    appender.start();
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> span.logEntries().size() == 1);
+    assertThat(fields(span, 0)).containsEntry("message", "message before");
+  }
+
+  @Test
+  public void givenTracerReturningNewSpanObjects_whenBudgetIsExceeded_thenEventsAreSuppressed() {
+    MockSpan span = tracer.buildSpan("span").start();
+    Tracer wrappingTracer = mock(Tracer.class);
+    // a new object for the same span on every call
+    when(wrappingTracer.activeSpan()).thenAnswer(invocation -> mock(Span.class, delegatesTo(span)));
+    appender = new SpanLogsAppender(wrappingTracer);
+    appender.setMaxLogsPerSpan(1);
+    appender.start();
+
+    for (int i = 0; i < 3; i++) {
+      appender.doAppend(event(Level.INFO, "message"));
+    }
+
+    // one log, then summaries after one and two suppressed events
+    assertThat(span.logEntries()).hasSize(3);
+    assertThat(fields(span, 2)).containsEntry("suppressed", 2L);
+  }
+
+  @Test
+  public void givenFullBuffer_whenEventIsLogged_thenItIsDropped() {
+    // not started, nothing drains the buffer
+    appender = new SpanLogsAppender(tracer, 4);
+
+    MockSpan span = tracer.buildSpan("span").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      for (int i = 0; i < 5; i++) {
+        appender.append(event(Level.INFO, "message"));
+      }
+    }
+
+    assertThat(appender.getDroppedCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void givenSyncMode_whenEventIsLogged_thenLogIsAttachedImmediately() {
+    appender = new SpanLogsAppender(tracer);
+    appender.start();
+
+    MockSpan span = tracer.buildSpan("span").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      appender.doAppend(event(Level.INFO, "message"));
+    }
+
+    assertThat(span.logEntries()).hasSize(1);
+  }
+
+  @Test
+  public void givenLogBudget_whenItIsExceeded_thenEventsAreSummarized() {
+    appender = new SpanLogsAppender(tracer);
+    appender.setMaxLogsPerSpan(2);
+    appender.start();
+
+    MockSpan span = tracer.buildSpan("span").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      for (int i = 0; i < 4; i++) {
+        appender.doAppend(event(Level.INFO, "message"));
+      }
+      appender.doAppend(event(Level.ERROR, "failure"));
+    }
+
+    // two logs, then summaries after one and two suppressed events
+    assertThat(span.logEntries()).hasSize(4);
+    assertThat(fields(span, 3))
+        .containsEntry("event", SpanLogBudget.SUMMARY_EVENT)
+        .containsEntry("suppressed", 2L)
+        .containsEntry("suppressed.level.INFO", 2L)
+        .containsEntry("suppressed.logger." + SpanLogsAppenderTest.class.getName(), 2L);
+    assertThat(span.tags()).containsEntry(Tags.ERROR.getKey(), true);
+
+    MockSpan other = tracer.buildSpan("other").start();
+    try (Scope scope = tracer.activateSpan(other)) {
+      appender.doAppend(event(Level.INFO, "message"));
+    }
+    assertThat(other.logEntries()).hasSize(1);
+  }
+
+  @Test
+  public void givenMaxMessageLength_whenMessageIsLonger_thenItIsTruncated() {
+    appender = new SpanLogsAppender(tracer);
+    appender.setMaxMessageLength(4);
+    appender.start();
+
+    MockSpan span = tracer.buildSpan("span").start();
+    try (Scope scope = tracer.activateSpan(span)) {
+      appender.doAppend(event(Level.INFO, "message"));
+      appender.doAppend(event(Level.INFO, "mess"));
+    }
+
+    assertThat(fields(span, 0)).containsEntry("message", "mess...");
+    assertThat(fields(span, 1)).containsEntry("message", "mess");
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> fields(MockSpan span, int index) {
+    return (Map<String, Object>) span.logEntries().get(index).fields();
+  }
+
+  private LoggingEvent event(Level level, String message, Object... arguments) {
+    return new LoggingEvent(Logger.class.getName(), logger, level, message, null, arguments);
+  }
+}
@@ -13,22 +13,32 @@
  */
 package io.opentracing.contrib.spring.cloud.traced;
 
+import io.opentracing.Scope;
+import io.opentracing.Span;
 import io.opentracing.Tracer;
 import io.opentracing.contrib.spring.cloud.MockTracingConfiguration;
 import io.opentracing.contrib.spring.cloud.aop.Traced;
+import io.opentracing.mock.MockSpan;
 import io.opentracing.mock.MockTracer;
 import io.opentracing.tag.Tags;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.assertj.core.api.WithAssertions;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.BeanInitializationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -39,6 +49,8 @@ public class TracedAutoConfigurationTest implements WithAssertions {
   @Autowired
   private IgnoredTracedClass ignoredTracedClass;
   @Autowired
+  private MinDurationTracedClass minDurationTracedClass;
+  @Autowired
   private MockTracer tracer;
 
   @Before()
@@ -95,6 +107,169 @@ public class TracedAutoConfigurationTest implements WithAssertions {
     assertThat(tracer.finishedSpans().get(0).tags()).isEmpty();
   }
 
+  @Test
+  public void givenCompletableFuture_whenITrace_thenSpanIsFinishedOnCompletion() {
+    CompletableFuture<String> future = new CompletableFuture<>();
+    assertThat(tracedClass.completableFuture(future)).isSameAs(future);
+    assertThat(tracer.finishedSpans()).isEmpty();
+
+    future.complete("done");
+    assertThat(tracer.finishedSpans()).hasSize(1);
+    assertThat(tracer.finishedSpans().get(0).operationName()).isEqualTo("completableFuture");
+    assertThat(tracer.finishedSpans().get(0).tags()).doesNotContainKey(Tags.ERROR.getKey());
+  }
+
+  @Test
+  public void givenFailedCompletableFuture_whenITrace_thenSpanIsTaggedWithError() {
+    CompletableFuture<String> future = new CompletableFuture<>();
+    tracedClass.completableFuture(future);
+
+    future.completeExceptionally(new IllegalStateException("failed"));
+    assertThat(tracer.finishedSpans()).hasSize(1);
+    assertThat(tracer.finishedSpans().get(0).tags().get(Tags.ERROR.getKey())).isEqualTo(true);
+    assertThat(tracer.finishedSpans().get(0).logEntries().get(0).fields().get("error.object"))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void givenListenableFuture_whenITrace_thenSpanIsFinishedOnCompletion() {
+    SettableListenableFuture<String> future = new SettableListenableFuture<>();
+    tracedClass.listenableFuture(future);
+    assertThat(tracer.finishedSpans()).isEmpty();
+
+    future.setException(new IllegalStateException("failed"));
+    assertThat(tracer.finishedSpans()).hasSize(1);
+    assertThat(tracer.finishedSpans().get(0).tags().get(Tags.ERROR.getKey())).isEqualTo(true);
+  }
+
+  @Test
+  public void givenMono_whenITrace_thenSpanIsFinishedOnTermination() {
+    Mono<String> mono = tracedClass.mono("done");
+    assertThat(tracer.finishedSpans()).isEmpty();
+
+    assertThat(mono.block()).isEqualTo("done");
+    assertThat(tracer.finishedSpans()).hasSize(1);
+    assertThat(tracer.finishedSpans().get(0).operationName()).isEqualTo("mono");
+  }
+
+  @Test
+  public void givenMono_whenSubscribedLater_thenSpanStartsOnSubscription() throws InterruptedException {
+    Mono<String> mono = tracedClass.mono("done");
+    Thread.sleep(10);
+    final long subscribedMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+
+    mono.block();
+    mono.block();
+    assertThat(tracer.finishedSpans()).hasSize(2);
+    assertThat(tracer.finishedSpans().get(0).startMicros()).isGreaterThanOrEqualTo(subscribedMicros);
+  }
+
+  @Test
+  public void givenMono_whenNeverSubscribed_thenNoSpanIsStarted() {
+    MockSpan parent = tracer.buildSpan("parent").start();
+    try (Scope ignored = tracer.activateSpan(parent)) {
+      tracedClass.mono("never subscribed");
+      tracedClass.child("sibling");
+    }
+    parent.finish();
+
+    assertThat(tracer.finishedSpans()).hasSize(3);
+    // span ids are sequential in MockTracer, no id was taken by a span of the unsubscribed mono
+    assertThat(tracer.finishedSpans().get(1).operationName()).isEqualTo("child");
+    assertThat(tracer.finishedSpans().get(1).context().spanId())
+        .isEqualTo(parent.context().spanId() + 1);
+  }
+
+  @Test
+  public void givenFailingFlux_whenITrace_thenSpanIsTaggedWithError() {
+    Flux<String> flux = tracedClass.flux(new IllegalStateException("failed"));
+    assertThat(tracer.finishedSpans()).isEmpty();
+
+    assertThatThrownBy(flux::blockLast).isInstanceOf(IllegalStateException.class);
+    assertThat(tracer.finishedSpans()).hasSize(1);
+    assertThat(tracer.finishedSpans().get(0).tags().get(Tags.ERROR.getKey())).isEqualTo(true);
+  }
+
+  @Test
+  public void givenMinDuration_whenMethodIsFaster_thenSpanIsNotSampled() {
+    minDurationTracedClass.fast();
+    assertThat(tracer.finishedSpans()).hasSize(1);
+    assertThat(tracer.finishedSpans().get(0).tags().get(Tags.SAMPLING_PRIORITY.getKey()))
+        .isEqualTo(0);
+  }
+
+  @Test
+  public void givenMinDuration_whenMethodFails_thenSpanIsSampled() {
+    assertThatThrownBy(() -> minDurationTracedClass.failing())
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(tracer.finishedSpans()).hasSize(1);
+    assertThat(tracer.finishedSpans().get(0).tags())
+        .doesNotContainKey(Tags.SAMPLING_PRIORITY.getKey());
+  }
+
+  @Test
+  public void givenMinDuration_whenMethodHasTracedChild_thenSpanIsSampled() {
+    minDurationTracedClass.withTracedChild();
+    assertThat(tracer.finishedSpans()).hasSize(2);
+    assertThat(tracer.finishedSpans().get(0).operationName()).isEqualTo("traced");
+    assertThat(tracer.finishedSpans().get(1).operationName()).isEqualTo("withTracedChild");
+    assertThat(tracer.finishedSpans().get(1).tags())
+        .doesNotContainKey(Tags.SAMPLING_PRIORITY.getKey());
+  }
+
+  @Test
+  public void givenMinDuration_whenMethodRuns_thenTracerSpanIsActive() {
+    Span active = minDurationTracedClass.activeSpan();
+    assertThat(active).isInstanceOf(MockSpan.class);
+    assertThat(tracer.finishedSpans()).hasSize(1);
+    MockSpan span = tracer.finishedSpans().get(0);
+    assertThat(span.context().spanId()).isEqualTo(((MockSpan) active).context().spanId());
+    // reading the context of the active span, as MDC or header injection do, does not keep it
+    assertThat(span.tags().get(Tags.SAMPLING_PRIORITY.getKey())).isEqualTo(0);
+  }
+
+  @Test
+  public void givenMinDuration_whenMethodHasFastTracedChild_thenNoSpanIsSampled() {
+    minDurationTracedClass.withFastTracedChild();
+    assertThat(tracer.finishedSpans()).hasSize(2);
+    assertThat(tracer.finishedSpans()).allSatisfy(span ->
+        assertThat(span.tags().get(Tags.SAMPLING_PRIORITY.getKey())).isEqualTo(0));
+  }
+
+  @Test
+  public void givenMinDuration_whenAsyncChildIsReported_thenSpanIsReported() {
+    CompletableFuture<String> child = new CompletableFuture<>();
+    CompletableFuture<String> result = new CompletableFuture<>();
+    minDurationTracedClass.withAsyncTracedChild(child, result);
+
+    child.complete("child");
+    result.complete("done");
+    assertThat(tracer.finishedSpans()).hasSize(2);
+    assertThat(tracer.finishedSpans().get(0).operationName()).isEqualTo("completableFuture");
+    assertThat(tracer.finishedSpans().get(1).operationName()).isEqualTo("withAsyncTracedChild");
+    assertThat(tracer.finishedSpans().get(1).tags())
+        .doesNotContainKey(Tags.SAMPLING_PRIORITY.getKey());
+  }
+
+  @Test
+  public void givenInvalidMinDuration_whenBeanIsCreated_thenCreationFails() {
+    assertThatThrownBy(() -> new TracedMinDurationValidator()
+        .postProcessBeforeInitialization(new InvalidMinDurationTracedClass(), "invalid"))
+        .isInstanceOf(BeanInitializationException.class)
+        .hasMessageContaining("10 parsecs");
+  }
+
+  @Test
+  public void givenMinDuration_whenFutureCompletesExceptionally_thenSpanIsSampled() {
+    CompletableFuture<String> future = new CompletableFuture<>();
+    minDurationTracedClass.completableFuture(future);
+
+    future.completeExceptionally(new IllegalStateException("failed"));
+    assertThat(tracer.finishedSpans()).hasSize(1);
+    assertThat(tracer.finishedSpans().get(0).tags())
+        .doesNotContainKey(Tags.SAMPLING_PRIORITY.getKey());
+  }
+
   @SpringBootApplication
   @Import(MockTracingConfiguration.class)
   public static class TestConfig {
@@ -108,6 +283,16 @@ public class TracedAutoConfigurationTest implements WithAssertions {
     public IgnoredTracedClass ignoredTracedClass() {
       return new IgnoredTracedClass();
     }
+
+    @Bean
+    public MinDurationTracedClass minDurationTracedClass() {
+      return new MinDurationTracedClass();
+    }
+
+    @Bean
+    public FastTracedClass fastTracedClass() {
+      return new FastTracedClass();
+    }
   }
 
   public static class TracedClass {
@@ -133,6 +318,26 @@ public class TracedAutoConfigurationTest implements WithAssertions {
     public void tracedComponent() {
 
     }
+
+    @Traced
+    public CompletableFuture<String> completableFuture(CompletableFuture<String> future) {
+      return future;
+    }
+
+    @Traced
+    public ListenableFuture<String> listenableFuture(ListenableFuture<String> future) {
+      return future;
+    }
+
+    @Traced
+    public Mono<String> mono(String value) {
+      return Mono.just(value);
+    }
+
+    @Traced
+    public Flux<String> flux(Exception error) {
+      return Flux.error(error);
+    }
   }
   public static class IgnoredTracedClass {
     @Traced
@@ -141,4 +346,67 @@ public class TracedAutoConfigurationTest implements WithAssertions {
     }
 
   }
+
+  public static class MinDurationTracedClass {
+    @Autowired
+    private Tracer tracer;
+    @Autowired
+    private TracedClass tracedClass;
+    @Autowired
+    private FastTracedClass fastTracedClass;
+
+    @Traced(minDuration = "1h")
+    public void fast() {
+
+    }
+
+    @Traced(minDuration = "1h")
+    public void failing() {
+      throw new IllegalStateException("failed");
+    }
+
+    @Traced(minDuration = "1h")
+    public void withTracedChild() {
+      tracedClass.traced();
+    }
+
+    @Traced(minDuration = "1h")
+    public CompletableFuture<String> completableFuture(CompletableFuture<String> future) {
+      return future;
+    }
+
+    @Traced(minDuration = "1h")
+    public Span activeSpan() {
+      Span span = tracer.activeSpan();
+      span.context().toSpanId();
+      return span;
+    }
+
+    @Traced(minDuration = "1h")
+    public void withFastTracedChild() {
+      fastTracedClass.fast();
+    }
+
+    @Traced(minDuration = "1h")
+    public CompletableFuture<String> withAsyncTracedChild(CompletableFuture<String> child,
+        CompletableFuture<String> result) {
+      // the child is reported once its future completes, after this method returned
+      tracedClass.completableFuture(child);
+      return result;
+    }
+  }
+
+  public static class FastTracedClass {
+    @Traced(minDuration = "1h")
+    public void fast() {
+
+    }
+  }
+
+  public static class InvalidMinDurationTracedClass {
+    @Traced(minDuration = "10 parsecs")
+    public void invalid() {
+
+    }
+  }
 }
@@ -0,0 +1,157 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.error;
+
+import io.opentracing.Span;
+import io.opentracing.tag.Tags;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds error logs of spans. With deduplication enabled, exceptions are fingerprinted by type and
+ * top stack frames, and only the first occurrence of a fingerprint in a time window is logged with
+ * the exception object. Later occurrences get the exception type and the fingerprint, which refers
+ * back to the full occurrence.
+ *
+ * <p>Instrumentations get the instance provided by {@code ErrorCaptureAutoConfiguration} of
+ * opentracing-spring-cloud-core injected, and fall back to {@link #noDeduplication()} without it.
+ */
+public class ErrorCapture {
+
+  public static final String FINGERPRINT_KEY = "error.fingerprint";
+
+  static final int FINGERPRINT_FRAMES = 5;
+
+  private static final ErrorCapture NO_DEDUPLICATION = new ErrorCapture(0, 0);
+
+  private final long windowNanos;
+  private final FingerprintCache fingerprints;
+
+  /**
+   * @param windowMillis time window in which a fingerprint is logged with the full exception once,
+   *     {@code 0} to log the full exception every time
+   * @param maxFingerprints number of fingerprints remembered, the least recently seen are evicted
+   */
+  public ErrorCapture(long windowMillis, int maxFingerprints) {
+    this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    this.fingerprints = windowMillis > 0 && maxFingerprints > 0
+        ? new FingerprintCache(maxFingerprints) : null;
+  }
+
+  /**
+   * @return instance logging the full exception every time
+   */
+  public static ErrorCapture noDeduplication() {
+    return NO_DEDUPLICATION;
+  }
+
+  /**
+   * Tags the span with error and adds error logs of the exception.
+   */
+  public void capture(Span span, Throwable throwable) {
+    Tags.ERROR.set(span, Boolean.TRUE);
+    span.log(errorLogs(throwable));
+  }
+
+  /**
+   * @return error event with the exception or its compact reference
+   */
+  public Map<String, Object> errorLogs(Throwable throwable) {
+    Map<String, Object> errorLogs = new LinkedHashMap<>(5);
+    errorLogs.put("event", Tags.ERROR.getKey());
+    if (!putErrorFields(errorLogs, throwable) && throwable.getMessage() != null) {
+      errorLogs.put("message", throwable.getMessage());
+    }
+    return errorLogs;
+  }
+
+  /**
+   * Adds the exception or its compact reference to span log fields.
+   *
+   * @return whether the exception object was added
+   */
+  public boolean putErrorFields(Map<String, Object> fields, Throwable throwable) {
+    if (fingerprints == null) {
+      fields.put("error.object", throwable);
+      return true;
+    }
+    long fingerprint = fingerprint(throwable);
+    fields.put(FINGERPRINT_KEY, Long.toHexString(fingerprint));
+    if (fingerprints.firstInWindow(fingerprint, System.nanoTime(), windowNanos)) {
+      fields.put("error.object", throwable);
+      return true;
+    }
+    fields.put("error.kind", throwable.getClass().getName());
+    return false;
+  }
+
+  static long fingerprint(Throwable throwable) {
+    long hash = throwable.getClass().getName().hashCode();
+    StackTraceElement[] stackTrace = throwable.getStackTrace();
+    for (int i = 0; i < Math.min(FINGERPRINT_FRAMES, stackTrace.length); i++) {
+      StackTraceElement frame = stackTrace[i];
+      hash = 31 * hash + frame.getClassName().hashCode();
+      hash = 31 * hash + frame.getMethodName().hashCode();
+      hash = 31 * hash + frame.getLineNumber();
+    }
+    // spread the bits, the hash codes above are only 32 bit wide
+    hash *= 0x9E3779B97F4A7C15L;
+    return hash ^ (hash >>> 32);
+  }
+
+  /**
+   * Least recently seen fingerprints and the time their full exception was last logged. Split into
+   * independently locked segments so that concurrent failures do not serialize on a single lock.
+   */
+  private static final class FingerprintCache {
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment[] segments;
+
+    FingerprintCache(int maxSize) {
+      segments = new Segment[Math.min(MAX_SEGMENTS, Integer.highestOneBit(maxSize))];
+      int segmentSize = (maxSize + segments.length - 1) / segments.length;
+      for (int i = 0; i < segments.length; i++) {
+        segments[i] = new Segment(segmentSize);
+      }
+    }
+
+    boolean firstInWindow(long fingerprint, long nowNanos, long windowNanos) {
+      Segment segment = segments[(int) fingerprint & (segments.length - 1)];
+      synchronized (segment) {
+        Long reported = segment.get(fingerprint);
+        if (reported != null && nowNanos - reported < windowNanos) {
+          return false;
+        }
+        segment.put(fingerprint, nowNanos);
+        return true;
+      }
+    }
+  }
+
+  private static final class Segment extends LinkedHashMap<Long, Long> {
+    private final int maxSize;
+
+    Segment(int maxSize) {
+      super(16, 0.75f, true);
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+      return size() > maxSize;
+    }
+  }
+}
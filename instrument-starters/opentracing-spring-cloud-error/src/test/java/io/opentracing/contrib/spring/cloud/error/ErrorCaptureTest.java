@@ -0,0 +1,108 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.error;
+
+import io.opentracing.tag.Tags;
+import java.util.Map;
+import org.assertj.core.api.WithAssertions;
+import org.junit.Test;
+
+public class ErrorCaptureTest implements WithAssertions {
+
+  @Test
+  public void givenNoDeduplication_whenExceptionRepeats_thenItIsAlwaysLogged() {
+    ErrorCapture errorCapture = new ErrorCapture(0, 0);
+    RuntimeException ex = failure("failure");
+
+    assertThat(errorCapture.errorLogs(ex)).containsOnlyKeys("event", "error.object");
+    assertThat(errorCapture.errorLogs(ex))
+        .containsEntry("event", Tags.ERROR.getKey())
+        .containsEntry("error.object", ex);
+  }
+
+  @Test
+  public void givenDeduplication_whenExceptionRepeats_thenOnlyReferenceIsLogged() {
+    ErrorCapture errorCapture = new ErrorCapture(60_000, 10);
+
+    Map<String, Object> first = null;
+    Map<String, Object> second = null;
+    // same throw site and call path
+    for (String message : new String[] {"first", "second"}) {
+      second = errorCapture.errorLogs(failure(message));
+      first = first == null ? second : first;
+    }
+
+    assertThat(first).containsKeys("error.object", ErrorCapture.FINGERPRINT_KEY);
+    assertThat(second)
+        .doesNotContainKey("error.object")
+        .containsEntry(ErrorCapture.FINGERPRINT_KEY, first.get(ErrorCapture.FINGERPRINT_KEY))
+        .containsEntry("error.kind", RuntimeException.class.getName())
+        .containsEntry("message", "second");
+  }
+
+  @Test
+  public void givenDeduplication_whenExceptionComesFromElsewhere_thenItIsLogged() {
+    ErrorCapture errorCapture = new ErrorCapture(60_000, 10);
+
+    Map<String, Object> first = errorCapture.errorLogs(failure("failure"));
+    Map<String, Object> other = errorCapture.errorLogs(new IllegalStateException("failure"));
+
+    assertThat(other).containsKey("error.object");
+    assertThat(other.get(ErrorCapture.FINGERPRINT_KEY))
+        .isNotEqualTo(first.get(ErrorCapture.FINGERPRINT_KEY));
+  }
+
+  @Test
+  public void givenFullCache_whenFingerprintIsEvicted_thenExceptionIsLoggedAgain() {
+    ErrorCapture errorCapture = new ErrorCapture(60_000, 1);
+
+    Map<String, Object> logs = null;
+    for (int i = 0; i < 2; i++) {
+      logs = errorCapture.errorLogs(failure("failure"));
+      errorCapture.errorLogs(new IllegalStateException("failure"));
+    }
+
+    assertThat(logs).containsKey("error.object");
+  }
+
+  @Test
+  public void givenExpiredWindow_whenExceptionRepeats_thenItIsLoggedAgain() throws InterruptedException {
+    ErrorCapture errorCapture = new ErrorCapture(1, 10);
+
+    Map<String, Object> logs = null;
+    for (int i = 0; i < 2; i++) {
+      logs = errorCapture.errorLogs(failure("failure"));
+      Thread.sleep(5);
+    }
+
+    assertThat(logs).containsKey("error.object");
+  }
+
+  @Test
+  public void givenSegmentedCache_whenManyExceptionsRepeat_thenAllAreDeduplicated() {
+    ErrorCapture errorCapture = new ErrorCapture(60_000, 64);
+
+    for (int round = 0; round < 2; round++) {
+      for (int line = 1; line <= 32; line++) {
+        RuntimeException ex = failure("failure");
+        ex.setStackTrace(new StackTraceElement[] {new StackTraceElement("Caller", "call", null, line)});
+        assertThat(errorCapture.errorLogs(ex).containsKey("error.object")).isEqualTo(round == 0);
+      }
+    }
+  }
+
+  private static RuntimeException failure(String message) {
+    return new RuntimeException(message);
+  }
+}
@@ -17,11 +17,9 @@ import com.netflix.hystrix.HystrixCommand;
 import io.opentracing.Scope;
 import io.opentracing.Span;
 import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
 import io.opentracing.tag.Tags;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Implement this class if you need traced variant of {@link HystrixCommand}. It creates a span that
  * wraps the whole invocation.
@@ -34,10 +32,19 @@ public abstract class TracedHystrixCommand<R> extends HystrixCommand<R> {
   static final String TAG_THREAD_POOL_KEY = "threadPoolKey";
 
   private final Tracer tracer;
+  private final ErrorCapture errorCapture;
 
   protected TracedHystrixCommand(Tracer tracer, Setter setter) {
+    this(tracer, ErrorCapture.noDeduplication(), setter);
+  }
+
+  /**
+   * @param errorCapture builds the error logs of the span, e.g. the {@link ErrorCapture} bean
+   */
+  protected TracedHystrixCommand(Tracer tracer, ErrorCapture errorCapture, Setter setter) {
     super(setter);
     this.tracer = tracer;
+    this.errorCapture = errorCapture;
   }
 
   @Override
@@ -62,15 +69,7 @@ public abstract class TracedHystrixCommand<R> extends HystrixCommand<R> {
   }
 
   private void onError(Exception e, Span span) {
-    Tags.ERROR.set(span, Boolean.TRUE);
-    span.log(errorLogs(e));
-  }
-
-  private Map<String, Object> errorLogs(Exception e) {
-    Map<String, Object> errorLogs = new HashMap<>(3);
-    errorLogs.put("event", Tags.ERROR.getKey());
-    errorLogs.put("error.object", e);
-    return errorLogs;
+    errorCapture.capture(span, e);
   }
 
   public abstract R doRun() throws Exception;
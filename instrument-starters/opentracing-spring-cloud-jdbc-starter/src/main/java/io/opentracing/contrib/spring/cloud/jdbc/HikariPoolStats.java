@@ -0,0 +1,48 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.opentracing.Tracer.SpanBuilder;
+import io.opentracing.tag.IntTag;
+
+/**
+ * Tags connection acquisition spans with the state of a HikariCP pool. Only loaded when HikariCP is
+ * on the classpath.
+ */
+final class HikariPoolStats {
+
+  static final IntTag ACTIVE_TAG = new IntTag("db.pool.active");
+  static final IntTag IDLE_TAG = new IntTag("db.pool.idle");
+  static final IntTag PENDING_TAG = new IntTag("db.pool.pending");
+  static final IntTag TOTAL_TAG = new IntTag("db.pool.total");
+
+  private HikariPoolStats() {
+  }
+
+  static void tag(SpanBuilder spanBuilder, Object dataSource) {
+    if (!(dataSource instanceof HikariDataSource)) {
+      return;
+    }
+    // null until the pool is started by the first checkout
+    HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+    if (pool != null) {
+      spanBuilder.withTag(ACTIVE_TAG, pool.getActiveConnections())
+          .withTag(IDLE_TAG, pool.getIdleConnections())
+          .withTag(PENDING_TAG, pool.getThreadsAwaitingConnection())
+          .withTag(TOTAL_TAG, pool.getTotalConnections());
+    }
+  }
+}
@@ -13,18 +13,27 @@
  */
 package io.opentracing.contrib.spring.cloud.jdbc;
 
+import io.opentracing.Span;
+import io.opentracing.Tracer;
 import io.opentracing.contrib.common.WrapperProxy;
 import io.opentracing.contrib.jdbc.ConnectionInfo;
 import io.opentracing.contrib.jdbc.TracingConnection;
 import io.opentracing.contrib.jdbc.parser.URLParser;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
+import io.opentracing.tag.Tags;
 import io.opentracing.util.GlobalTracer;
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
 import java.util.Set;
 import javax.sql.DataSource;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ConcurrentReferenceHashMap.ReferenceType;
 
 /**
  * Spring AOP Aspect wrapping JDBC-related calls, delegating as much as possible to the official
@@ -33,14 +42,50 @@ import org.aspectj.lang.annotation.Aspect;
  * @author Juraci Paixão Kröhling
  */
 @Aspect
-public class JdbcAspect {
+public class JdbcAspect implements AutoCloseable {
+
+  /**
+   * Routing data sources hand out connections to different databases, their URL is not cached.
+   */
+  private static final Class<?> ROUTING_DATA_SOURCE = resolveClass(
+      "org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource");
+  private static final boolean HIKARI_PRESENT = resolveClass("com.zaxxer.hikari.HikariDataSource") != null;
+
+  static final String ACQUISITION_OPERATION_NAME = "getConnection";
+  static final String COMPONENT_NAME = "java-jdbc";
 
   private final boolean withActiveSpanOnly;
   private final Set<String> ignoredStatements;
+  private final boolean traceConnectionAcquisition;
+  private final boolean traceBatches;
+  private final boolean traceResultSets;
+  private final boolean traceTransactions;
+  private final Tracer tracer;
+  private final ErrorCapture errorCapture;
+  // weak keys, refreshed data sources are collected together with their entries
+  private final Map<DataSource, ConnectionInfo> connectionInfos =
+      new ConcurrentReferenceHashMap<>(16, ReferenceType.WEAK);
 
   public JdbcAspect(boolean withActiveSpanOnly, Set<String> ignoredStatements) {
-    this.withActiveSpanOnly = withActiveSpanOnly;
-    this.ignoredStatements = ignoredStatements;
+    this(properties(withActiveSpanOnly, ignoredStatements));
+  }
+
+  public JdbcAspect(JdbcTracingProperties jdbcTracingProperties) {
+    this(jdbcTracingProperties, ErrorCapture.noDeduplication());
+  }
+
+  public JdbcAspect(JdbcTracingProperties jdbcTracingProperties, ErrorCapture errorCapture) {
+    this.withActiveSpanOnly = jdbcTracingProperties.isWithActiveSpanOnly();
+    this.ignoredStatements = jdbcTracingProperties.getIgnoreStatements();
+    this.traceConnectionAcquisition = jdbcTracingProperties.isTraceConnectionAcquisition();
+    this.traceBatches = jdbcTracingProperties.isTraceBatches();
+    this.traceResultSets = jdbcTracingProperties.isTraceResultSets();
+    this.traceTransactions = jdbcTracingProperties.isTraceTransactions()
+        && StatementSpanTracer.TRANSACTIONS_PRESENT;
+    // GlobalTracer delegates to the tracer registered later on
+    this.tracer = StatementSpanTracer.isNeeded(jdbcTracingProperties)
+        ? new StatementSpanTracer(GlobalTracer.get(), jdbcTracingProperties) : GlobalTracer.get();
+    this.errorCapture = errorCapture;
   }
 
   /**
@@ -53,13 +98,84 @@ public class JdbcAspect {
    */
   @Around("execution(java.sql.Connection *.getConnection(..)) && target(javax.sql.DataSource)")
   public Object getConnection(final ProceedingJoinPoint pjp) throws Throwable {
-    Connection conn = (Connection) pjp.proceed();
-    if (WrapperProxy.isWrapper(conn, TracingConnection.class)) {
+    Connection conn = traceConnectionAcquisition ? acquireTraced(pjp) : (Connection) pjp.proceed();
+    if (WrapperProxy.isWrapper(conn, TracingConnection.class) || StatementProxies.isWrapped(conn)) {
       return conn;
     }
-    String url = conn.getMetaData().getURL();
-    ConnectionInfo connectionInfo = URLParser.parse(url);
-    return WrapperProxy.wrap(conn, new TracingConnection(conn, connectionInfo,
-        withActiveSpanOnly, ignoredStatements, GlobalTracer.get()));
+    ConnectionInfo connectionInfo = connectionInfo((DataSource) pjp.getTarget(), conn);
+    Connection tracingConnection = WrapperProxy.wrap(conn, new TracingConnection(conn,
+        connectionInfo, withActiveSpanOnly, ignoredStatements, tracer));
+    if (traceBatches || traceResultSets || traceTransactions) {
+      return StatementProxies.wrap(tracingConnection, GlobalTracer.get(), errorCapture,
+          traceBatches, traceResultSets, traceTransactions);
+    }
+    return tracingConnection;
+  }
+
+  /**
+   * Checks out a connection in a child span of the active span, tagged with pool stats when the
+   * data source is a HikariCP pool.
+   */
+  private Connection acquireTraced(ProceedingJoinPoint pjp) throws Throwable {
+    Tracer tracer = GlobalTracer.get();
+    if (tracer.activeSpan() == null) {
+      return (Connection) pjp.proceed();
+    }
+    Tracer.SpanBuilder spanBuilder = tracer.buildSpan(ACQUISITION_OPERATION_NAME)
+        .withTag(Tags.COMPONENT.getKey(), COMPONENT_NAME);
+    if (HIKARI_PRESENT) {
+      HikariPoolStats.tag(spanBuilder, pjp.getTarget());
+    }
+    Span span = spanBuilder.start();
+    try {
+      return (Connection) pjp.proceed();
+    } catch (Throwable ex) {
+      errorCapture.capture(span, ex);
+      throw ex;
+    } finally {
+      span.finish();
+    }
+  }
+
+  /**
+   * The URL of a data source does not change, it is read from the connection metadata and parsed
+   * only for the first connection.
+   */
+  private ConnectionInfo connectionInfo(DataSource dataSource, Connection conn) throws SQLException {
+    if (ROUTING_DATA_SOURCE != null && ROUTING_DATA_SOURCE.isInstance(dataSource)) {
+      return URLParser.parse(conn.getMetaData().getURL());
+    }
+    ConnectionInfo connectionInfo = connectionInfos.get(dataSource);
+    if (connectionInfo == null) {
+      connectionInfo = URLParser.parse(conn.getMetaData().getURL());
+      connectionInfos.put(dataSource, connectionInfo);
+    }
+    return connectionInfo;
+  }
+
+  /**
+   * Finishes pending aggregate spans of repeated statements.
+   */
+  @Override
+  public void close() {
+    if (tracer instanceof StatementSpanTracer) {
+      ((StatementSpanTracer) tracer).close();
+    }
+  }
+
+  private static JdbcTracingProperties properties(boolean withActiveSpanOnly,
+      Set<String> ignoredStatements) {
+    JdbcTracingProperties properties = new JdbcTracingProperties();
+    properties.setWithActiveSpanOnly(withActiveSpanOnly);
+    properties.setIgnoreStatements(ignoredStatements);
+    return properties;
+  }
+
+  private static Class<?> resolveClass(String className) {
+    try {
+      return ClassUtils.forName(className, JdbcAspect.class.getClassLoader());
+    } catch (ClassNotFoundException | LinkageError ex) {
+      return null;
+    }
   }
 }
@@ -13,7 +13,9 @@
  */
 package io.opentracing.contrib.spring.cloud.jdbc;
 
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
 import io.opentracing.contrib.spring.tracer.configuration.TracerRegisterAutoConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -32,8 +34,9 @@ import org.springframework.context.annotation.Configuration;
 public class JdbcAutoConfiguration {
 
   @Bean
-  public JdbcAspect jdbcAspect(JdbcTracingProperties jdbcTracingProperties) {
-    return new JdbcAspect(jdbcTracingProperties.isWithActiveSpanOnly(),
-        jdbcTracingProperties.getIgnoreStatements());
+  public JdbcAspect jdbcAspect(JdbcTracingProperties jdbcTracingProperties,
+      ObjectProvider<ErrorCapture> errorCapture) {
+    return new JdbcAspect(jdbcTracingProperties,
+        errorCapture.getIfAvailable(ErrorCapture::noDeduplication));
   }
 }
@@ -13,6 +13,7 @@
  */
 package io.opentracing.contrib.spring.cloud.jdbc;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Set;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -28,6 +29,54 @@ public class JdbcTracingProperties {
    * Set of JDBC statement calls to not trace.
    */
   private Set<String> ignoreStatements = new HashSet<>();
+  /**
+   * Trace connection checkouts from the data source as child spans of the active span, tagged with
+   * pool stats for HikariCP.
+   */
+  private boolean traceConnectionAcquisition = false;
+  /**
+   * Tag batch statement spans with the number of batched statements and the statement fingerprint.
+   */
+  private boolean traceBatches = false;
+  /**
+   * Report rows fetched from query results and time spent in ResultSet#next() in a span following
+   * from the statement span.
+   */
+  private boolean traceResultSets = false;
+  /**
+   * Trace transactions, from the moment their connection switches auto-commit off until they are
+   * committed or rolled back.
+   */
+  private boolean traceTransactions = false;
+  /**
+   * Statement spans finishing faster than this are not reported unless the statement failed. Not
+   * set to report every statement.
+   */
+  private Duration slowQueryThreshold;
+  /**
+   * Executions of the same statement under the same parent span past this many are collapsed into
+   * one aggregate span flagged as a probable N+1 query, the collapsed statement spans are not
+   * reported. 0 to disable.
+   */
+  private int repeatedStatementThreshold = 0;
+  /**
+   * Aggregate spans of repeated statements are finished once no repeat arrived for this long.
+   */
+  private Duration repeatedStatementFlushDelay = Duration.ofSeconds(1);
+  /**
+   * Tag statement spans with db.statement.fingerprint, a hash of the statement with literals
+   * replaced and IN lists collapsed.
+   */
+  private boolean fingerprintStatements = false;
+  /**
+   * Use the normalized statement as operation name of statement spans, implies
+   * fingerprintStatements.
+   */
+  private boolean fingerprintOperationName = false;
+  /**
+   * Number of statements whose fingerprint is remembered.
+   */
+  private int fingerprintCacheSize = 1000;
 
   public boolean isWithActiveSpanOnly() {
     return withActiveSpanOnly;
@@ -45,4 +94,83 @@ public class JdbcTracingProperties {
     this.ignoreStatements = ignoreStatements;
   }
 
+  public boolean isTraceConnectionAcquisition() {
+    return traceConnectionAcquisition;
+  }
+
+  public void setTraceConnectionAcquisition(boolean traceConnectionAcquisition) {
+    this.traceConnectionAcquisition = traceConnectionAcquisition;
+  }
+
+  public Duration getSlowQueryThreshold() {
+    return slowQueryThreshold;
+  }
+
+  public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+    this.slowQueryThreshold = slowQueryThreshold;
+  }
+
+  public int getRepeatedStatementThreshold() {
+    return repeatedStatementThreshold;
+  }
+
+  public void setRepeatedStatementThreshold(int repeatedStatementThreshold) {
+    this.repeatedStatementThreshold = repeatedStatementThreshold;
+  }
+
+  public boolean isTraceBatches() {
+    return traceBatches;
+  }
+
+  public void setTraceBatches(boolean traceBatches) {
+    this.traceBatches = traceBatches;
+  }
+
+  public boolean isTraceResultSets() {
+    return traceResultSets;
+  }
+
+  public void setTraceResultSets(boolean traceResultSets) {
+    this.traceResultSets = traceResultSets;
+  }
+
+  public boolean isTraceTransactions() {
+    return traceTransactions;
+  }
+
+  public void setTraceTransactions(boolean traceTransactions) {
+    this.traceTransactions = traceTransactions;
+  }
+
+  public Duration getRepeatedStatementFlushDelay() {
+    return repeatedStatementFlushDelay;
+  }
+
+  public void setRepeatedStatementFlushDelay(Duration repeatedStatementFlushDelay) {
+    this.repeatedStatementFlushDelay = repeatedStatementFlushDelay;
+  }
+
+  public boolean isFingerprintStatements() {
+    return fingerprintStatements;
+  }
+
+  public void setFingerprintStatements(boolean fingerprintStatements) {
+    this.fingerprintStatements = fingerprintStatements;
+  }
+
+  public boolean isFingerprintOperationName() {
+    return fingerprintOperationName;
+  }
+
+  public void setFingerprintOperationName(boolean fingerprintOperationName) {
+    this.fingerprintOperationName = fingerprintOperationName;
+  }
+
+  public int getFingerprintCacheSize() {
+    return fingerprintCacheSize;
+  }
+
+  public void setFingerprintCacheSize(int fingerprintCacheSize) {
+    this.fingerprintCacheSize = fingerprintCacheSize;
+  }
 }
@@ -0,0 +1,251 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import io.opentracing.Span;
+import io.opentracing.SpanContext;
+import io.opentracing.Tracer;
+import io.opentracing.tag.BooleanTag;
+import io.opentracing.tag.IntTag;
+import io.opentracing.tag.Tags;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Detects probable N+1 queries: the same statement fingerprint executed over and over under the
+ * same parent span. Past the threshold, further executions are collapsed into one aggregate span
+ * per parent and fingerprint, carrying their count, total and maximum time, and the collapsed
+ * statement spans are not reported. Interleaved statements each keep their own aggregate.
+ *
+ * <p>Parents are identified by the trace and span ids of their context, tracers may return new
+ * span and context objects for the same span. OpenTracing does not tell when the parent span
+ * finishes, so an aggregate span is finished once no repeat arrived for the flush delay, or when
+ * the detector is closed. It is finished with the end time of its last repeat either way. Parents
+ * without any execution for the flush delay are forgotten.
+ */
+class RepeatedStatementDetector implements AutoCloseable {
+
+  static final String OPERATION_NAME = "repeated-statement";
+  static final BooleanTag N_PLUS_ONE_TAG = new BooleanTag("db.n_plus_one");
+  static final IntTag COUNT_TAG = new IntTag("db.repeat.count");
+  static final String TOTAL_TIME_KEY = "db.repeat.total_micros";
+  static final String MAX_TIME_KEY = "db.repeat.max_micros";
+
+  private final Tracer tracer;
+  private final int threshold;
+  private final long flushDelayNanos;
+  private final ConcurrentMap<ParentKey, ParentStatements> parents = new ConcurrentHashMap<>();
+  private ScheduledFuture<?> sweep;
+
+  RepeatedStatementDetector(Tracer tracer, int threshold, long flushDelayNanos) {
+    this.tracer = tracer;
+    this.threshold = threshold;
+    this.flushDelayNanos = flushDelayNanos;
+  }
+
+  /**
+   * Records a successful execution that just finished.
+   *
+   * @return whether the execution was collapsed into the aggregate span
+   */
+  boolean collapse(SpanContext parent, SqlFingerprint fingerprint, long durationNanos) {
+    String spanId = parent.toSpanId();
+    if (spanId == null || spanId.isEmpty()) {
+      return false;
+    }
+    ParentKey key = new ParentKey(parent.toTraceId(), spanId);
+    long nowNanos = System.nanoTime();
+    while (true) {
+      ParentStatements statements = parents.get(key);
+      if (statements == null) {
+        statements = parents.computeIfAbsent(key, ignored -> new ParentStatements());
+        startSweeping();
+      }
+      synchronized (statements) {
+        // forgotten by the sweeper in the meantime
+        if (!statements.removed) {
+          return statements.collapse(parent, fingerprint, durationNanos, nowNanos);
+        }
+      }
+    }
+  }
+
+  void flushIdle() {
+    long nowNanos = System.nanoTime();
+    for (Map.Entry<ParentKey, ParentStatements> entry : parents.entrySet()) {
+      ParentStatements statements = entry.getValue();
+      synchronized (statements) {
+        if (statements.flushIdle(nowNanos)) {
+          statements.removed = true;
+          parents.remove(entry.getKey(), statements);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (sweep != null) {
+        sweep.cancel(false);
+        sweep = null;
+      }
+    }
+    for (ParentStatements statements : parents.values()) {
+      synchronized (statements) {
+        statements.flushAll();
+      }
+    }
+  }
+
+  /**
+   * Schedules the idle flush on the shared sweeper thread once the first parent is tracked.
+   */
+  private synchronized void startSweeping() {
+    if (sweep == null) {
+      long period = Math.max(TimeUnit.MILLISECONDS.toNanos(10), flushDelayNanos / 2);
+      sweep = Sweeper.EXECUTOR.scheduleWithFixedDelay(this::flushIdle, period, period,
+          TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private static long epochMicros(long nanoTime) {
+    long nowMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    return nowMicros - TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - nanoTime);
+  }
+
+  /**
+   * Single daemon thread shared by all detectors, started on first use.
+   */
+  private static final class Sweeper {
+    static final ScheduledThreadPoolExecutor EXECUTOR;
+
+    static {
+      CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("jdbc-repeated-statements-");
+      threadFactory.setDaemon(true);
+      EXECUTOR = new ScheduledThreadPoolExecutor(1, threadFactory);
+      EXECUTOR.setRemoveOnCancelPolicy(true);
+    }
+  }
+
+  private static final class ParentKey {
+    private final String traceId;
+    private final String spanId;
+
+    ParentKey(String traceId, String spanId) {
+      this.traceId = traceId;
+      this.spanId = spanId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ParentKey)) {
+        return false;
+      }
+      ParentKey other = (ParentKey) o;
+      return spanId.equals(other.spanId) && Objects.equals(traceId, other.traceId);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * spanId.hashCode() + (traceId != null ? traceId.hashCode() : 0);
+    }
+  }
+
+  private static class Repeats {
+    int executions;
+    Span aggregate;
+    int collapsed;
+    long totalNanos;
+    long maxNanos;
+    long lastEndNanos;
+
+    void flush() {
+      COUNT_TAG.set(aggregate, collapsed);
+      aggregate.setTag(TOTAL_TIME_KEY, TimeUnit.NANOSECONDS.toMicros(totalNanos));
+      aggregate.setTag(MAX_TIME_KEY, TimeUnit.NANOSECONDS.toMicros(maxNanos));
+      aggregate.finish(epochMicros(lastEndNanos));
+      aggregate = null;
+      collapsed = 0;
+      totalNanos = 0;
+      maxNanos = 0;
+    }
+  }
+
+  /**
+   * Executions under one parent span, guarded by its own monitor.
+   */
+  private class ParentStatements {
+    final Map<String, Repeats> repeats = new HashMap<>(4);
+    long lastExecutionNanos;
+    boolean removed;
+
+    boolean collapse(SpanContext parent, SqlFingerprint fingerprint, long durationNanos,
+        long nowNanos) {
+      lastExecutionNanos = nowNanos;
+      Repeats statementRepeats = repeats.computeIfAbsent(fingerprint.getId(), key -> new Repeats());
+      if (++statementRepeats.executions <= threshold) {
+        return false;
+      }
+      if (statementRepeats.aggregate == null) {
+        statementRepeats.aggregate = tracer.buildSpan(OPERATION_NAME)
+            .asChildOf(parent)
+            .withStartTimestamp(epochMicros(nowNanos - durationNanos))
+            .withTag(Tags.COMPONENT.getKey(), JdbcAspect.COMPONENT_NAME)
+            .withTag(Tags.DB_STATEMENT.getKey(), fingerprint.getNormalizedSql())
+            .withTag(StatementSpan.FINGERPRINT_TAG, fingerprint.getId())
+            .withTag(N_PLUS_ONE_TAG, true)
+            .start();
+      }
+      statementRepeats.collapsed++;
+      statementRepeats.totalNanos += durationNanos;
+      statementRepeats.maxNanos = Math.max(statementRepeats.maxNanos, durationNanos);
+      statementRepeats.lastEndNanos = nowNanos;
+      return true;
+    }
+
+    /**
+     * Finishes the aggregates without a repeat for the flush delay.
+     *
+     * @return whether the parent had no execution for the flush delay, so it can be forgotten
+     */
+    boolean flushIdle(long nowNanos) {
+      for (Repeats statementRepeats : repeats.values()) {
+        if (statementRepeats.aggregate != null
+            && nowNanos - statementRepeats.lastEndNanos >= flushDelayNanos) {
+          statementRepeats.flush();
+        }
+      }
+      return nowNanos - lastExecutionNanos >= flushDelayNanos;
+    }
+
+    void flushAll() {
+      for (Repeats statementRepeats : repeats.values()) {
+        if (statementRepeats.aggregate != null) {
+          statementRepeats.flush();
+        }
+      }
+    }
+  }
+}
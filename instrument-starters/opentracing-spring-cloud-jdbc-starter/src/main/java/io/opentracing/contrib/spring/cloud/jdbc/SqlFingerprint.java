@@ -0,0 +1,45 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+/**
+ * Normalized form of a SQL statement, with literals replaced by {@code ?} and IN lists collapsed,
+ * and its hash.
+ */
+public final class SqlFingerprint {
+
+  private final String normalizedSql;
+  private final String id;
+
+  SqlFingerprint(String normalizedSql, String id) {
+    this.normalizedSql = normalizedSql;
+    this.id = id;
+  }
+
+  public String getNormalizedSql() {
+    return normalizedSql;
+  }
+
+  /**
+   * @return hex encoded 64 bit hash of the normalized statement
+   */
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public String toString() {
+    return id + " " + normalizedSql;
+  }
+}
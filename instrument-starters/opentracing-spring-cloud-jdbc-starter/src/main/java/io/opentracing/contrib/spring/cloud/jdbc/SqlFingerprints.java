@@ -0,0 +1,168 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Computes {@link SqlFingerprint}s and memoizes them in a bounded LRU cache keyed by the raw
+ * statement. The cache is split into independently locked segments so that concurrent statements
+ * do not serialize on a single lock.
+ */
+public class SqlFingerprints {
+
+  private static final int SEGMENTS = 16;
+  private static final Pattern IN_LIST = Pattern.compile(
+      "(?i)\\b(IN)\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+  private final Segment[] segments = new Segment[SEGMENTS];
+
+  /**
+   * @param maxSize number of statements remembered
+   */
+  public SqlFingerprints(int maxSize) {
+    int segmentSize = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = new Segment(segmentSize);
+    }
+  }
+
+  public SqlFingerprint get(String sql) {
+    int hash = sql.hashCode();
+    Segment segment = segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    SqlFingerprint fingerprint;
+    synchronized (segment) {
+      fingerprint = segment.get(sql);
+    }
+    if (fingerprint == null) {
+      // computed outside of the lock, racing threads compute the same value
+      fingerprint = fingerprint(sql);
+      synchronized (segment) {
+        segment.put(sql, fingerprint);
+      }
+    }
+    return fingerprint;
+  }
+
+  static SqlFingerprint fingerprint(String sql) {
+    String normalizedSql = normalize(sql);
+    return new SqlFingerprint(normalizedSql, Long.toHexString(fnv1a(normalizedSql)));
+  }
+
+  /**
+   * Replaces string and numeric literals with {@code ?}, strips comments, collapses whitespace and
+   * collapses IN lists of placeholders to a single one.
+   */
+  static String normalize(String sql) {
+    StringBuilder normalized = new StringBuilder(sql.length());
+    int length = sql.length();
+    int i = 0;
+    while (i < length) {
+      char c = sql.charAt(i);
+      if (c == '\'') {
+        i = skipQuoted(sql, i, '\'');
+        normalized.append('?');
+      } else if (c == '"' || c == '`') {
+        // quoted identifier, kept as is
+        int end = skipQuoted(sql, i, c);
+        normalized.append(sql, i, end);
+        i = end;
+      } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+        while (i < length && sql.charAt(i) != '\n') {
+          i++;
+        }
+      } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+        int end = sql.indexOf("*/", i + 2);
+        i = end < 0 ? length : end + 2;
+      } else if (Character.isWhitespace(c)) {
+        while (i < length && Character.isWhitespace(sql.charAt(i))) {
+          i++;
+        }
+        if (i < length && normalized.length() > 0
+            && normalized.charAt(normalized.length() - 1) != ' ') {
+          normalized.append(' ');
+        }
+      } else if (isDigit(c) && !endsWithIdentifier(normalized)) {
+        while (i < length && (isDigit(sql.charAt(i)) || sql.charAt(i) == '.'
+            || Character.isLetter(sql.charAt(i)))) {
+          i++;
+        }
+        normalized.append('?');
+      } else {
+        normalized.append(c);
+        i++;
+      }
+    }
+    // a trailing comment leaves a trailing space behind
+    int end = normalized.length();
+    if (end > 0 && normalized.charAt(end - 1) == ' ') {
+      normalized.setLength(end - 1);
+    }
+    String result = normalized.toString();
+    return result.indexOf('?') >= 0 ? IN_LIST.matcher(result).replaceAll("$1 (?)") : result;
+  }
+
+  private static int skipQuoted(String sql, int start, char quote) {
+    int i = start + 1;
+    while (i < sql.length()) {
+      if (sql.charAt(i) == quote) {
+        if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+          // escaped quote
+          i += 2;
+          continue;
+        }
+        return i + 1;
+      }
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean endsWithIdentifier(StringBuilder normalized) {
+    if (normalized.length() == 0) {
+      return false;
+    }
+    char last = normalized.charAt(normalized.length() - 1);
+    return Character.isLetterOrDigit(last) || last == '_' || last == '$';
+  }
+
+  private static long fnv1a(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  private static final class Segment extends LinkedHashMap<String, SqlFingerprint> {
+    private final int maxSize;
+
+    Segment(int maxSize) {
+      super(16, 0.75f, true);
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, SqlFingerprint> eldest) {
+      return size() > maxSize;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+/**
+ * Statement call in progress on the current thread, hands what {@link StatementProxies} knows
+ * about the call to the statement span started for it, and the span back.
+ */
+final class StatementInvocation {
+
+  private static final ThreadLocal<StatementInvocation> CURRENT = new ThreadLocal<>();
+
+  private final StatementInvocation previous;
+  private final int batchSize;
+  private final String batchSql;
+  private StatementSpan span;
+
+  private StatementInvocation(StatementInvocation previous, int batchSize, String batchSql) {
+    this.previous = previous;
+    this.batchSize = batchSize;
+    this.batchSql = batchSql;
+  }
+
+  /**
+   * @param batchSize number of batched statements, -1 when the call does not execute a batch
+   * @param batchSql first statement added with {@code addBatch(String)}, if any
+   */
+  static StatementInvocation begin(int batchSize, String batchSql) {
+    StatementInvocation invocation = new StatementInvocation(CURRENT.get(), batchSize, batchSql);
+    CURRENT.set(invocation);
+    return invocation;
+  }
+
+  static StatementInvocation current() {
+    return CURRENT.get();
+  }
+
+  void end() {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+
+  boolean isBatch() {
+    return batchSize >= 0;
+  }
+
+  int getBatchSize() {
+    return batchSize;
+  }
+
+  String getBatchSql() {
+    return batchSql;
+  }
+
+  /**
+   * @return span started for the call, {@code null} when it was not traced
+   */
+  StatementSpan getSpan() {
+    return span;
+  }
+
+  void setSpan(StatementSpan span) {
+    this.span = span;
+  }
+}
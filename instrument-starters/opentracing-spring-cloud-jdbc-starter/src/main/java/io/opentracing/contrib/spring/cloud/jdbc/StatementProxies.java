@@ -0,0 +1,340 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import io.opentracing.References;
+import io.opentracing.Span;
+import io.opentracing.SpanContext;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
+import io.opentracing.tag.IntTag;
+import io.opentracing.tag.Tags;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Proxies over traced connections which count batched statements and measure how rows are fetched
+ * from result sets, the OpenTracing JDBC integration only sees the execute calls. Every other call
+ * goes straight to the traced JDBC object.
+ */
+final class StatementProxies {
+
+  static final String FETCH_OPERATION_NAME = "Fetch";
+  static final IntTag ROWS_TAG = new IntTag("db.result_set.rows");
+  static final String FETCH_TIME_KEY = "db.result_set.fetch_micros";
+
+  private static final ClassValue<Class<?>[]> INTERFACES = new ClassValue<Class<?>[]>() {
+    @Override
+    protected Class<?>[] computeValue(Class<?> type) {
+      return ClassUtils.getAllInterfacesForClassAsSet(type).stream()
+          .filter(iface -> Modifier.isPublic(iface.getModifiers()))
+          .toArray(Class<?>[]::new);
+    }
+  };
+
+  private StatementProxies() {
+  }
+
+  /**
+   * @param traceTransactions record when the connection begins a transaction, see
+   *     {@link TransactionSpan#markBegin()}
+   */
+  static Connection wrap(Connection connection, Tracer tracer, ErrorCapture errorCapture,
+      boolean traceBatches, boolean traceResultSets, boolean traceTransactions) {
+    return (Connection) newProxy(connection, new ConnectionHandler(connection, tracer, errorCapture,
+        traceBatches, traceResultSets, traceTransactions));
+  }
+
+  static boolean isWrapped(Connection connection) {
+    return Proxy.isProxyClass(connection.getClass())
+        && Proxy.getInvocationHandler(connection) instanceof ConnectionHandler;
+  }
+
+  /**
+   * Proxy implementing every public interface of the target, vendor interfaces such as
+   * {@code PGConnection} included.
+   */
+  private static Object newProxy(Object target, InvocationHandler handler) {
+    Class<?> targetClass = target.getClass();
+    ClassLoader classLoader = targetClass.getClassLoader() != null ? targetClass.getClassLoader()
+        : StatementProxies.class.getClassLoader();
+    return Proxy.newProxyInstance(classLoader, INTERFACES.get(targetClass), handler);
+  }
+
+  /**
+   * Proxies are only equal to themselves.
+   */
+  private static Object invokeObjectMethod(Object proxy, Method method, Object[] args,
+      Object target) {
+    switch (method.getName()) {
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      default:
+        return target.toString();
+    }
+  }
+
+  private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  private static class ConnectionHandler implements InvocationHandler {
+    private final Connection target;
+    private final Tracer tracer;
+    private final ErrorCapture errorCapture;
+    private final boolean traceBatches;
+    private final boolean traceResultSets;
+    private final boolean traceTransactions;
+
+    ConnectionHandler(Connection target, Tracer tracer, ErrorCapture errorCapture,
+        boolean traceBatches, boolean traceResultSets, boolean traceTransactions) {
+      this.target = target;
+      this.tracer = tracer;
+      this.errorCapture = errorCapture;
+      this.traceBatches = traceBatches;
+      this.traceResultSets = traceResultSets;
+      this.traceTransactions = traceTransactions;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (method.getDeclaringClass() == Object.class) {
+        return invokeObjectMethod(proxy, method, args, target);
+      }
+      Object result = StatementProxies.invoke(method, target, args);
+      if (traceTransactions) {
+        onTransactionBoundary(method, args);
+      }
+      if (result instanceof Statement) {
+        Statement statement = (Statement) result;
+        return newProxy(statement, new StatementHandler(statement, (Connection) proxy, this));
+      }
+      return result;
+    }
+
+    /**
+     * Transaction managers switch auto-commit off to begin a transaction and back on after it.
+     */
+    private static void onTransactionBoundary(Method method, Object[] args) {
+      switch (method.getName()) {
+        case "setAutoCommit":
+          if (Boolean.FALSE.equals(args[0])) {
+            TransactionSpan.markBegin();
+          } else {
+            TransactionSpan.clearBegin();
+          }
+          break;
+        case "commit":
+        case "rollback":
+          TransactionSpan.clearBegin();
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  /**
+   * Statements are not used by several threads at once, no synchronization needed.
+   */
+  private static class StatementHandler implements InvocationHandler {
+    private final Statement target;
+    private final Connection connection;
+    private final ConnectionHandler options;
+    private int batchSize;
+    private String batchSql;
+    private StatementSpan lastStatement;
+    private ResultSetHandler openResultSet;
+
+    StatementHandler(Statement target, Connection connection, ConnectionHandler options) {
+      this.target = target;
+      this.connection = connection;
+      this.options = options;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (method.getDeclaringClass() == Object.class) {
+        return invokeObjectMethod(proxy, method, args, target);
+      }
+      switch (method.getName()) {
+        case "addBatch":
+          if (args != null && batchSql == null) {
+            batchSql = (String) args[0];
+          }
+          batchSize++;
+          return StatementProxies.invoke(method, target, args);
+        case "clearBatch":
+          clearBatch();
+          return StatementProxies.invoke(method, target, args);
+        case "executeBatch":
+        case "executeLargeBatch":
+          try {
+            return options.traceBatches ? execute(proxy, method, args, batchSize)
+                : StatementProxies.invoke(method, target, args);
+          } finally {
+            clearBatch();
+          }
+        case "executeQuery":
+        case "execute":
+          return options.traceResultSets ? execute(proxy, method, args, -1)
+              : StatementProxies.invoke(method, target, args);
+        case "getResultSet":
+          return resultSet(proxy, StatementProxies.invoke(method, target, args));
+        case "getConnection":
+          return connection;
+        case "close":
+          if (openResultSet != null) {
+            openResultSet.finish();
+          }
+          return StatementProxies.invoke(method, target, args);
+        default:
+          return StatementProxies.invoke(method, target, args);
+      }
+    }
+
+    private Object execute(Object proxy, Method method, Object[] args, int batchSize)
+        throws Throwable {
+      StatementInvocation invocation = StatementInvocation.begin(batchSize, batchSql);
+      Object result;
+      try {
+        result = StatementProxies.invoke(method, target, args);
+      } finally {
+        invocation.end();
+      }
+      lastStatement = invocation.getSpan();
+      return resultSet(proxy, result);
+    }
+
+    private Object resultSet(Object proxy, Object result) {
+      if (openResultSet != null) {
+        openResultSet.finish();
+        openResultSet = null;
+      }
+      // the fetch of a statement that is not reported, fast or collapsed, is not either
+      if (!(result instanceof ResultSet) || !options.traceResultSets || lastStatement == null
+          || lastStatement.isDropped()) {
+        return result;
+      }
+      openResultSet = new ResultSetHandler((ResultSet) result, (Statement) proxy,
+          lastStatement.context(), options.tracer, options.errorCapture);
+      return newProxy(result, openResultSet);
+    }
+
+    private void clearBatch() {
+      batchSize = 0;
+      batchSql = null;
+    }
+  }
+
+  /**
+   * Reports rows fetched and time spent in {@link ResultSet#next()} in a span following from the
+   * statement span, from the first call to {@code next()} until the last row or until the result
+   * set is closed.
+   */
+  private static class ResultSetHandler implements InvocationHandler {
+    private final ResultSet target;
+    private final Statement statement;
+    private final SpanContext statementContext;
+    private final Tracer tracer;
+    private final ErrorCapture errorCapture;
+    private Span span;
+    private int rows;
+    private long fetchNanos;
+    private boolean finished;
+
+    ResultSetHandler(ResultSet target, Statement statement, SpanContext statementContext,
+        Tracer tracer, ErrorCapture errorCapture) {
+      this.target = target;
+      this.statement = statement;
+      this.statementContext = statementContext;
+      this.tracer = tracer;
+      this.errorCapture = errorCapture;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (method.getDeclaringClass() == Object.class) {
+        return invokeObjectMethod(proxy, method, args, target);
+      }
+      switch (method.getName()) {
+        case "next":
+          return finished ? StatementProxies.invoke(method, target, args) : next(method, args);
+        case "close":
+          try {
+            return StatementProxies.invoke(method, target, args);
+          } finally {
+            finish();
+          }
+        case "getStatement":
+          return statement;
+        default:
+          return StatementProxies.invoke(method, target, args);
+      }
+    }
+
+    private Object next(Method method, Object[] args) throws Throwable {
+      if (span == null) {
+        span = tracer.buildSpan(FETCH_OPERATION_NAME)
+            .addReference(References.FOLLOWS_FROM, statementContext)
+            .withTag(Tags.SPAN_KIND.getKey(), Tags.SPAN_KIND_CLIENT)
+            .withTag(Tags.COMPONENT.getKey(), JdbcAspect.COMPONENT_NAME)
+            .start();
+      }
+      long startNanos = System.nanoTime();
+      boolean hasRow;
+      try {
+        hasRow = (Boolean) StatementProxies.invoke(method, target, args);
+      } catch (Throwable ex) {
+        fetchNanos += System.nanoTime() - startNanos;
+        errorCapture.capture(span, ex);
+        finish();
+        throw ex;
+      }
+      fetchNanos += System.nanoTime() - startNanos;
+      if (hasRow) {
+        rows++;
+      } else {
+        finish();
+      }
+      return hasRow;
+    }
+
+    void finish() {
+      if (finished) {
+        return;
+      }
+      finished = true;
+      if (span != null) {
+        ROWS_TAG.set(span, rows);
+        span.setTag(FETCH_TIME_KEY, TimeUnit.NANOSECONDS.toMicros(fetchNanos));
+        span.finish();
+      }
+    }
+  }
+}
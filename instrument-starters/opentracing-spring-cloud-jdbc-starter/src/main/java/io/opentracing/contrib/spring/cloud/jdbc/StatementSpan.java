@@ -0,0 +1,193 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import io.opentracing.Span;
+import io.opentracing.SpanContext;
+import io.opentracing.tag.IntTag;
+import io.opentracing.tag.StringTag;
+import io.opentracing.tag.Tag;
+import io.opentracing.tag.Tags;
+import java.util.Map;
+
+/**
+ * JDBC statement span, handing the statement to {@link StatementSpanTracer} when it is tagged and
+ * again when it finishes.
+ */
+class StatementSpan implements Span {
+
+  static final StringTag FINGERPRINT_TAG = new StringTag("db.statement.fingerprint");
+  static final IntTag BATCH_SIZE_TAG = new IntTag("db.batch.size");
+
+  private final Span delegate;
+  private final StatementSpanTracer tracer;
+  private final SpanContext parent;
+  private final long startNanos = System.nanoTime();
+  private SqlFingerprint fingerprint;
+  private String batchSql;
+  private boolean batch;
+  private boolean failed;
+  private boolean dropped;
+
+  StatementSpan(Span delegate, StatementSpanTracer tracer, SpanContext parent) {
+    this.delegate = delegate;
+    this.tracer = tracer;
+    this.parent = parent;
+  }
+
+  /**
+   * @return context of the span the statement span is a child of, only tracked for repeated
+   *     statement detection
+   */
+  SpanContext getParent() {
+    return parent;
+  }
+
+  SqlFingerprint getFingerprint() {
+    return fingerprint;
+  }
+
+  void setFingerprint(SqlFingerprint fingerprint) {
+    this.fingerprint = fingerprint;
+  }
+
+  /**
+   * Batch statement span, {@code batchSql} is the first statement added to the batch with
+   * {@code addBatch(String)}, if any.
+   */
+  void setBatch(int batchSize, String batchSql) {
+    this.batch = true;
+    this.batchSql = batchSql;
+    BATCH_SIZE_TAG.set(delegate, batchSize);
+  }
+
+  boolean isBatch() {
+    return batch;
+  }
+
+  String getBatchSql() {
+    return batchSql;
+  }
+
+  boolean isFailed() {
+    return failed;
+  }
+
+  /**
+   * @return whether the span was left unfinished to not report it
+   */
+  boolean isDropped() {
+    return dropped;
+  }
+
+  @Override
+  public SpanContext context() {
+    return delegate.context();
+  }
+
+  @Override
+  public Span setTag(String key, String value) {
+    delegate.setTag(key, value);
+    if (value != null && StatementSpanTracer.isStatementTag(key)) {
+      tracer.onStatement(this, value);
+    }
+    return this;
+  }
+
+  @Override
+  public Span setTag(String key, boolean value) {
+    delegate.setTag(key, value);
+    if (value && Tags.ERROR.getKey().equals(key)) {
+      failed = true;
+    }
+    return this;
+  }
+
+  @Override
+  public Span setTag(String key, Number value) {
+    delegate.setTag(key, value);
+    return this;
+  }
+
+  @Override
+  public <T> Span setTag(Tag<T> tag, T value) {
+    if (value instanceof String) {
+      return setTag(tag.getKey(), (String) value);
+    }
+    if (value instanceof Boolean) {
+      return setTag(tag.getKey(), ((Boolean) value).booleanValue());
+    }
+    delegate.setTag(tag, value);
+    return this;
+  }
+
+  @Override
+  public Span log(Map<String, ?> fields) {
+    delegate.log(fields);
+    return this;
+  }
+
+  @Override
+  public Span log(long timestampMicroseconds, Map<String, ?> fields) {
+    delegate.log(timestampMicroseconds, fields);
+    return this;
+  }
+
+  @Override
+  public Span log(String event) {
+    delegate.log(event);
+    return this;
+  }
+
+  @Override
+  public Span log(long timestampMicroseconds, String event) {
+    delegate.log(timestampMicroseconds, event);
+    return this;
+  }
+
+  @Override
+  public Span setBaggageItem(String key, String value) {
+    delegate.setBaggageItem(key, value);
+    return this;
+  }
+
+  @Override
+  public String getBaggageItem(String key) {
+    return delegate.getBaggageItem(key);
+  }
+
+  @Override
+  public Span setOperationName(String operationName) {
+    delegate.setOperationName(operationName);
+    return this;
+  }
+
+  @Override
+  public void finish() {
+    if (tracer.onFinish(this, System.nanoTime() - startNanos)) {
+      delegate.finish();
+    } else {
+      dropped = true;
+    }
+  }
+
+  @Override
+  public void finish(long finishMicros) {
+    if (tracer.onFinish(this, System.nanoTime() - startNanos)) {
+      delegate.finish(finishMicros);
+    } else {
+      dropped = true;
+    }
+  }
+}
@@ -0,0 +1,262 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import io.opentracing.References;
+import io.opentracing.Scope;
+import io.opentracing.ScopeManager;
+import io.opentracing.Span;
+import io.opentracing.SpanContext;
+import io.opentracing.Tracer;
+import io.opentracing.propagation.Format;
+import io.opentracing.tag.Tag;
+import io.opentracing.tag.Tags;
+import java.time.Duration;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Tracer handed to the OpenTracing JDBC integration. Statement spans it starts are wrapped in
+ * {@link StatementSpan}, which post-processes them once the statement is known. Statements without
+ * an explicit parent are children of the traced transaction they are part of, if any.
+ */
+class StatementSpanTracer implements Tracer, AutoCloseable {
+
+  static final boolean TRANSACTIONS_PRESENT = ClassUtils.isPresent(
+      "org.springframework.transaction.support.TransactionSynchronizationManager",
+      StatementSpanTracer.class.getClassLoader());
+
+  private final Tracer delegate;
+  private final SqlFingerprints fingerprints;
+  private final boolean fingerprintStatements;
+  private final boolean fingerprintOperationName;
+  private final long slowQueryThresholdNanos;
+  private final RepeatedStatementDetector repeatedStatementDetector;
+  private final boolean traceTransactions;
+
+  StatementSpanTracer(Tracer delegate, JdbcTracingProperties jdbcTracingProperties) {
+    this.delegate = delegate;
+    this.fingerprints = new SqlFingerprints(jdbcTracingProperties.getFingerprintCacheSize());
+    this.fingerprintOperationName = jdbcTracingProperties.isFingerprintOperationName();
+    this.fingerprintStatements = fingerprintOperationName || jdbcTracingProperties.isFingerprintStatements();
+    Duration slowQueryThreshold = jdbcTracingProperties.getSlowQueryThreshold();
+    this.slowQueryThresholdNanos = slowQueryThreshold != null ? slowQueryThreshold.toNanos() : 0;
+    this.repeatedStatementDetector = jdbcTracingProperties.getRepeatedStatementThreshold() > 0
+        ? new RepeatedStatementDetector(delegate, jdbcTracingProperties.getRepeatedStatementThreshold(),
+            jdbcTracingProperties.getRepeatedStatementFlushDelay().toNanos())
+        : null;
+    this.traceTransactions = jdbcTracingProperties.isTraceTransactions() && TRANSACTIONS_PRESENT;
+  }
+
+  /**
+   * Whether statement spans need any post-processing at all.
+   */
+  static boolean isNeeded(JdbcTracingProperties jdbcTracingProperties) {
+    return jdbcTracingProperties.isFingerprintStatements()
+        || jdbcTracingProperties.isFingerprintOperationName()
+        || jdbcTracingProperties.getSlowQueryThreshold() != null
+        || jdbcTracingProperties.getRepeatedStatementThreshold() > 0
+        || jdbcTracingProperties.isTraceBatches()
+        || jdbcTracingProperties.isTraceResultSets()
+        || jdbcTracingProperties.isTraceTransactions();
+  }
+
+  @Override
+  public ScopeManager scopeManager() {
+    return delegate.scopeManager();
+  }
+
+  @Override
+  public Span activeSpan() {
+    return delegate.activeSpan();
+  }
+
+  @Override
+  public Scope activateSpan(Span span) {
+    return delegate.activateSpan(span);
+  }
+
+  @Override
+  public SpanBuilder buildSpan(String operationName) {
+    return new StatementSpanBuilder(delegate.buildSpan(operationName));
+  }
+
+  @Override
+  public <C> void inject(SpanContext spanContext, Format<C> format, C carrier) {
+    delegate.inject(spanContext, format, carrier);
+  }
+
+  @Override
+  public <C> SpanContext extract(Format<C> format, C carrier) {
+    return delegate.extract(format, carrier);
+  }
+
+  /**
+   * Flushes pending aggregate spans, the delegate is left open.
+   */
+  @Override
+  public void close() {
+    if (repeatedStatementDetector != null) {
+      repeatedStatementDetector.close();
+    }
+  }
+
+  static boolean isStatementTag(String key) {
+    return Tags.DB_STATEMENT.getKey().equals(key);
+  }
+
+  void onStatement(StatementSpan span, String sql) {
+    if (!fingerprintStatements && repeatedStatementDetector == null && !span.isBatch()) {
+      return;
+    }
+    // the statement of a batch of plain statements is all of them concatenated
+    SqlFingerprint fingerprint = fingerprints.get(span.getBatchSql() != null ? span.getBatchSql() : sql);
+    span.setFingerprint(fingerprint);
+    if (fingerprintStatements || span.isBatch()) {
+      span.setTag(StatementSpan.FINGERPRINT_TAG, fingerprint.getId());
+    }
+    if (fingerprintOperationName) {
+      span.setOperationName(fingerprint.getNormalizedSql());
+    }
+  }
+
+  /**
+   * Called right before the span is finished.
+   *
+   * @return whether the span is finished, fast and collapsed statements are not
+   */
+  boolean onFinish(StatementSpan span, long durationNanos) {
+    if (span.isFailed()) {
+      return true;
+    }
+    boolean collapsed = span.getParent() != null && span.getFingerprint() != null
+        && repeatedStatementDetector.collapse(span.getParent(), span.getFingerprint(), durationNanos);
+    if (collapsed || slowQueryThresholdNanos > 0 && durationNanos < slowQueryThresholdNanos) {
+      // a span never finished is never reported, for tracers that record unfinished spans the
+      // priority asks them not to sample it either
+      Tags.SAMPLING_PRIORITY.set(span, 0);
+      return false;
+    }
+    return true;
+  }
+
+  private class StatementSpanBuilder implements SpanBuilder {
+    private final SpanBuilder delegate;
+    private boolean explicitParent;
+    private SpanContext parent;
+
+    StatementSpanBuilder(SpanBuilder delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public SpanBuilder asChildOf(SpanContext parent) {
+      explicitParent = true;
+      if (this.parent == null) {
+        this.parent = parent;
+      }
+      delegate.asChildOf(parent);
+      return this;
+    }
+
+    @Override
+    public SpanBuilder asChildOf(Span parent) {
+      explicitParent = true;
+      if (this.parent == null && parent != null) {
+        this.parent = parent.context();
+      }
+      delegate.asChildOf(parent);
+      return this;
+    }
+
+    @Override
+    public SpanBuilder addReference(String referenceType, SpanContext referencedContext) {
+      explicitParent = true;
+      if (parent == null && References.CHILD_OF.equals(referenceType)) {
+        parent = referencedContext;
+      }
+      delegate.addReference(referenceType, referencedContext);
+      return this;
+    }
+
+    @Override
+    public SpanBuilder ignoreActiveSpan() {
+      explicitParent = true;
+      delegate.ignoreActiveSpan();
+      return this;
+    }
+
+    @Override
+    public SpanBuilder withTag(String key, String value) {
+      delegate.withTag(key, value);
+      return this;
+    }
+
+    @Override
+    public SpanBuilder withTag(String key, boolean value) {
+      delegate.withTag(key, value);
+      return this;
+    }
+
+    @Override
+    public SpanBuilder withTag(String key, Number value) {
+      delegate.withTag(key, value);
+      return this;
+    }
+
+    @Override
+    public <T> SpanBuilder withTag(Tag<T> tag, T value) {
+      delegate.withTag(tag, value);
+      return this;
+    }
+
+    @Override
+    public SpanBuilder withStartTimestamp(long microseconds) {
+      delegate.withStartTimestamp(microseconds);
+      return this;
+    }
+
+    @Override
+    public Span start() {
+      TransactionSpan transactionSpan = traceTransactions
+          ? TransactionSpan.join(StatementSpanTracer.this.delegate) : null;
+      if (transactionSpan != null) {
+        transactionSpan.onStatement();
+        if (!explicitParent) {
+          asChildOf(transactionSpan.getSpan());
+        }
+      }
+      StatementSpan span = new StatementSpan(delegate.start(), StatementSpanTracer.this,
+          repeatedStatementDetector != null ? parent() : null);
+      StatementInvocation invocation = StatementInvocation.current();
+      if (invocation != null) {
+        if (invocation.isBatch()) {
+          span.setBatch(invocation.getBatchSize(), invocation.getBatchSql());
+        }
+        invocation.setSpan(span);
+      }
+      return span;
+    }
+
+    /**
+     * @return context of the span the statement span is a child of, as the tracer resolves it
+     */
+    private SpanContext parent() {
+      if (explicitParent) {
+        return parent;
+      }
+      Span activeSpan = activeSpan();
+      return activeSpan != null ? activeSpan.context() : null;
+    }
+  }
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.tag.BooleanTag;
+import io.opentracing.tag.IntTag;
+import io.opentracing.tag.StringTag;
+import io.opentracing.tag.Tags;
+import java.util.concurrent.TimeUnit;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Span of a transaction, from the moment its connection switched auto-commit off, or else its first
+ * statement, until it is committed or rolled back. It is registered as a synchronization of the
+ * transaction by the first statement and bound to it as a resource, the transaction managers are
+ * left untouched. The span is never activated, statement spans are made its children explicitly.
+ */
+final class TransactionSpan extends TransactionSynchronizationAdapter {
+
+  static final String OPERATION_NAME = "transaction";
+  static final String COMPONENT_NAME = "spring-tx";
+  static final StringTag NAME_TAG = new StringTag("tx.name");
+  static final StringTag ISOLATION_LEVEL_TAG = new StringTag("tx.isolation_level");
+  static final StringTag PROPAGATION_TAG = new StringTag("tx.propagation");
+  static final BooleanTag READ_ONLY_TAG = new BooleanTag("tx.read_only");
+  static final StringTag OUTCOME_TAG = new StringTag("tx.outcome");
+  static final IntTag STATEMENTS_TAG = new IntTag("tx.statements");
+  static final String COMPLETION_TIME_KEY = "tx.completion_micros";
+
+  private static final Isolation[] ISOLATIONS = Isolation.values();
+  private static final Propagation[] PROPAGATIONS = Propagation.values();
+  private static final Object RESOURCE_KEY = TransactionSpan.class;
+  private static final ThreadLocal<Long> BEGIN_MICROS = new ThreadLocal<>();
+
+  private final Span span;
+  private int statements;
+  private long completionStartNanos;
+
+  private TransactionSpan(Span span) {
+    this.span = span;
+  }
+
+  /**
+   * @return transaction in progress on the current thread, if traced
+   */
+  static TransactionSpan current() {
+    return (TransactionSpan) TransactionSynchronizationManager.getResource(RESOURCE_KEY);
+  }
+
+  /**
+   * Records that a connection of the current thread began a transaction, the span of the transaction
+   * starts at that time.
+   */
+  static void markBegin() {
+    BEGIN_MICROS.set(TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+  }
+
+  static void clearBegin() {
+    BEGIN_MICROS.remove();
+  }
+
+  /**
+   * @return transaction in progress on the current thread, its span is started when the first
+   *     statement joins it; {@code null} outside of a transaction
+   */
+  static TransactionSpan join(Tracer tracer) {
+    TransactionSpan transactionSpan = current();
+    if (transactionSpan != null || !TransactionSynchronizationManager.isSynchronizationActive()
+        || !TransactionSynchronizationManager.isActualTransactionActive()) {
+      return transactionSpan;
+    }
+    Tracer.SpanBuilder spanBuilder = tracer.buildSpan(OPERATION_NAME)
+        .withTag(Tags.COMPONENT.getKey(), COMPONENT_NAME);
+    Long beginMicros = BEGIN_MICROS.get();
+    if (beginMicros != null) {
+      BEGIN_MICROS.remove();
+      spanBuilder.withStartTimestamp(beginMicros);
+    }
+    Span span = spanBuilder.start();
+    String name = TransactionSynchronizationManager.getCurrentTransactionName();
+    if (name != null) {
+      NAME_TAG.set(span, name);
+    }
+    Integer isolationLevel = TransactionSynchronizationManager.getCurrentTransactionIsolationLevel();
+    ISOLATION_LEVEL_TAG.set(span, isolationLevel(isolationLevel != null ? isolationLevel
+        : TransactionDefinition.ISOLATION_DEFAULT));
+    Integer propagation = DeclaredTransaction.propagation();
+    if (propagation != null) {
+      PROPAGATION_TAG.set(span, propagation(propagation));
+    }
+    READ_ONLY_TAG.set(span, TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    transactionSpan = new TransactionSpan(span);
+    TransactionSynchronizationManager.registerSynchronization(transactionSpan);
+    TransactionSynchronizationManager.bindResource(RESOURCE_KEY, transactionSpan);
+    return transactionSpan;
+  }
+
+  Span getSpan() {
+    return span;
+  }
+
+  void onStatement() {
+    statements++;
+  }
+
+  @Override
+  public void suspend() {
+    TransactionSynchronizationManager.unbindResource(RESOURCE_KEY);
+  }
+
+  @Override
+  public void resume() {
+    TransactionSynchronizationManager.bindResource(RESOURCE_KEY, this);
+  }
+
+  @Override
+  public void beforeCompletion() {
+    completionStartNanos = System.nanoTime();
+  }
+
+  @Override
+  public void afterCompletion(int status) {
+    TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+    if (status == STATUS_COMMITTED) {
+      OUTCOME_TAG.set(span, "commit");
+    } else if (status == STATUS_ROLLED_BACK) {
+      OUTCOME_TAG.set(span, "rollback");
+    } else {
+      // heuristic outcome or failure to complete
+      OUTCOME_TAG.set(span, "unknown");
+      Tags.ERROR.set(span, Boolean.TRUE);
+    }
+    STATEMENTS_TAG.set(span, statements);
+    if (completionStartNanos != 0) {
+      span.setTag(COMPLETION_TIME_KEY,
+          TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - completionStartNanos));
+    }
+    span.finish();
+  }
+
+  static String isolationLevel(int isolationLevel) {
+    for (Isolation isolation : ISOLATIONS) {
+      if (isolation.value() == isolationLevel) {
+        return isolation.name();
+      }
+    }
+    return String.valueOf(isolationLevel);
+  }
+
+  static String propagation(int propagationBehavior) {
+    for (Propagation propagation : PROPAGATIONS) {
+      if (propagation.value() == propagationBehavior) {
+        return propagation.name();
+      }
+    }
+    return String.valueOf(propagationBehavior);
+  }
+
+  /**
+   * Exposes the attribute of the {@code @Transactional} method that began the transaction in
+   * progress, programmatic transactions do not bind theirs to the thread.
+   */
+  private static final class DeclaredTransaction extends TransactionAspectSupport {
+
+    private DeclaredTransaction() {
+    }
+
+    static Integer propagation() {
+      TransactionInfo transactionInfo = currentTransactionInfo();
+      if (transactionInfo == null || transactionInfo.getTransactionAttribute() == null
+          || !transactionInfo.hasTransaction()
+          || !transactionInfo.getTransactionStatus().isNewTransaction()) {
+        return null;
+      }
+      return transactionInfo.getTransactionAttribute().getPropagationBehavior();
+    }
+  }
+}
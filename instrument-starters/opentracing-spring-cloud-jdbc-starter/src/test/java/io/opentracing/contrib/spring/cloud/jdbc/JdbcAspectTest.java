@@ -0,0 +1,145 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import io.opentracing.Scope;
+import io.opentracing.Span;
+import io.opentracing.contrib.common.WrapperProxy;
+import io.opentracing.contrib.jdbc.TracingConnection;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.util.GlobalTracerTestUtil;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JdbcAspectTest {
+
+  private final JdbcAspect aspect = new JdbcAspect(false, Collections.emptySet());
+  private final ProceedingJoinPoint pjp = mock(ProceedingJoinPoint.class);
+  private final Connection connection = mock(Connection.class);
+  private final DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+
+  @Before
+  public void before() throws Throwable {
+    when(pjp.proceed()).thenReturn(connection);
+    when(connection.getMetaData()).thenReturn(metaData);
+    when(metaData.getURL()).thenReturn("jdbc:h2:mem:test");
+  }
+
+  @After
+  public void after() {
+    GlobalTracerTestUtil.resetGlobalTracer();
+  }
+
+  /**
+   * Make sure the connection URL is read only once per data source.
+   */
+  @Test
+  public void connectionInfoIsCachedPerDataSource() throws Throwable {
+    when(pjp.getTarget()).thenReturn(mock(DataSource.class));
+    for (int i = 0; i < 3; i++) {
+      assertTrue(WrapperProxy.isWrapper(aspect.getConnection(pjp), TracingConnection.class));
+    }
+    verify(metaData, times(1)).getURL();
+
+    when(pjp.getTarget()).thenReturn(mock(DataSource.class));
+    aspect.getConnection(pjp);
+    verify(metaData, times(2)).getURL();
+  }
+
+  /**
+   * Make sure vendor interfaces of the connection and its statements survive the statement proxies.
+   */
+  @Test
+  public void statementProxiesKeepVendorInterfaces() throws Throwable {
+    Connection vendorConnection = mock(Connection.class, withSettings().extraInterfaces(VendorConnection.class));
+    Statement vendorStatement = mock(Statement.class, withSettings().extraInterfaces(VendorStatement.class));
+    when(pjp.proceed()).thenReturn(vendorConnection);
+    when(pjp.getTarget()).thenReturn(mock(DataSource.class));
+    when(vendorConnection.getMetaData()).thenReturn(metaData);
+    when(vendorConnection.createStatement()).thenReturn(vendorStatement);
+    JdbcTracingProperties properties = new JdbcTracingProperties();
+    properties.setTraceResultSets(true);
+
+    Connection traced = (Connection) new JdbcAspect(properties).getConnection(pjp);
+
+    assertTrue(StatementProxies.isWrapped(traced));
+    assertTrue(traced instanceof VendorConnection);
+    assertTrue(traced.createStatement() instanceof VendorStatement);
+  }
+
+  /**
+   * Make sure failed acquisitions are logged through the error capture, which references repeated
+   * exceptions by their fingerprint.
+   */
+  @Test
+  public void acquisitionErrorsAreDeduplicated() throws Throwable {
+    MockTracer tracer = new MockTracer();
+    GlobalTracerTestUtil.setGlobalTracerUnconditionally(tracer);
+    SQLException failure = new SQLException("pool exhausted");
+    when(pjp.proceed()).thenThrow(failure);
+    when(pjp.getTarget()).thenReturn(mock(DataSource.class));
+    JdbcTracingProperties properties = new JdbcTracingProperties();
+    properties.setTraceConnectionAcquisition(true);
+    JdbcAspect aspect = new JdbcAspect(properties, new ErrorCapture(60_000, 10));
+
+    Span parent = tracer.buildSpan("parent").start();
+    try (Scope ignored = tracer.activateSpan(parent)) {
+      for (int i = 0; i < 2; i++) {
+        try {
+          aspect.getConnection(pjp);
+          fail();
+        } catch (SQLException ex) {
+          assertEquals(failure, ex);
+        }
+      }
+    }
+
+    List<MockSpan> spans = tracer.finishedSpans();
+    assertEquals(2, spans.size());
+    Map<String, ?> first = spans.get(0).logEntries().get(0).fields();
+    Map<String, ?> second = spans.get(1).logEntries().get(0).fields();
+    assertEquals(failure, first.get("error.object"));
+    assertFalse(second.containsKey("error.object"));
+    assertEquals(first.get(ErrorCapture.FINGERPRINT_KEY), second.get(ErrorCapture.FINGERPRINT_KEY));
+    assertEquals(true, spans.get(1).tags().get("error"));
+  }
+
+  public interface VendorConnection {
+  }
+
+  public interface VendorStatement {
+  }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockSpan.MockContext;
+import io.opentracing.mock.MockTracer;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class RepeatedStatementDetectorTest {
+
+  private final MockTracer tracer = new MockTracer();
+  private final SqlFingerprint fingerprint = SqlFingerprints.fingerprint("select 1");
+
+  /**
+   * Make sure a parent is recognized by its ids, not by the identity of its context.
+   */
+  @Test
+  public void parentsAreIdentifiedByIds() {
+    RepeatedStatementDetector detector = new RepeatedStatementDetector(tracer, 1,
+        TimeUnit.HOURS.toNanos(1));
+
+    assertFalse(detector.collapse(new MockContext(1, 2, Collections.emptyMap()), fingerprint, 10));
+    assertTrue(detector.collapse(new MockContext(1, 2, Collections.emptyMap()), fingerprint, 10));
+    assertFalse(detector.collapse(new MockContext(1, 3, Collections.emptyMap()), fingerprint, 10));
+    detector.close();
+
+    assertEquals(1, tracer.finishedSpans().size());
+    MockSpan aggregate = tracer.finishedSpans().get(0);
+    assertEquals(2, aggregate.parentId());
+    assertEquals(1, aggregate.tags().get("db.repeat.count"));
+  }
+
+  /**
+   * Make sure parents without executions for the flush delay are forgotten.
+   */
+  @Test
+  public void idleParentsAreForgotten() throws InterruptedException {
+    RepeatedStatementDetector detector = new RepeatedStatementDetector(tracer, 1,
+        TimeUnit.MILLISECONDS.toNanos(1));
+
+    assertFalse(detector.collapse(new MockContext(1, 2, Collections.emptyMap()), fingerprint, 10));
+    Thread.sleep(5);
+    detector.flushIdle();
+    assertFalse(detector.collapse(new MockContext(1, 2, Collections.emptyMap()), fingerprint, 10));
+    detector.close();
+
+    assertEquals(0, tracer.finishedSpans().size());
+  }
+}
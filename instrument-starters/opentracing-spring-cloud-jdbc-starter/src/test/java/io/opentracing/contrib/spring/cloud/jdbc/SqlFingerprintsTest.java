@@ -0,0 +1,62 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class SqlFingerprintsTest {
+
+  @Test
+  public void literalsAreReplaced() {
+    assertEquals("select * from t where a = ? and b = ? and c = ?",
+        SqlFingerprints.normalize("select * from t where a = 'it''s' and b = 42 and c = 1.5e3"));
+  }
+
+  @Test
+  public void identifiersAreKept() {
+    assertEquals("select \"col 1\", t2.c3 from table2 t2 where x = ?",
+        SqlFingerprints.normalize("select \"col 1\", t2.c3 from table2 t2 where x = 0x1F"));
+  }
+
+  @Test
+  public void inListsAreCollapsed() {
+    assertEquals("select * from t where id IN (?) and s in (?)",
+        SqlFingerprints.normalize("select * from t where id IN (1, 2,3) and s in ('a', ?)"));
+  }
+
+  @Test
+  public void commentsAndWhitespaceAreStripped() {
+    assertEquals("select ? from dual",
+        SqlFingerprints.normalize("  /* hint */ select\n\t1 -- trailing\nfrom   dual  "));
+  }
+
+  @Test
+  public void fingerprintIsStable() {
+    SqlFingerprint first = SqlFingerprints.fingerprint("select * from t where id = 1");
+    SqlFingerprint second = SqlFingerprints.fingerprint("select * from t where id = 2");
+    assertEquals(first.getId(), second.getId());
+    assertNotEquals(first.getId(), SqlFingerprints.fingerprint("select * from u where id = 1").getId());
+  }
+
+  @Test
+  public void fingerprintsAreMemoized() {
+    SqlFingerprints fingerprints = new SqlFingerprints(16);
+    SqlFingerprint fingerprint = fingerprints.get("select 1");
+    assertSame(fingerprint, fingerprints.get("select 1"));
+  }
+}
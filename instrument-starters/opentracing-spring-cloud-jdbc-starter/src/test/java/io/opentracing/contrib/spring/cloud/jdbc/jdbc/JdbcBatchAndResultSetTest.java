@@ -0,0 +1,90 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import io.opentracing.contrib.spring.cloud.jdbc.MockTracingConfiguration;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * Test behaviour when traceBatches and traceResultSets are set
+ */
+@SpringBootTest(classes = {MockTracingConfiguration.class})
+@RunWith(SpringJUnit4ClassRunner.class)
+@TestPropertySource(properties = {
+    "opentracing.spring.cloud.jdbc.traceBatches=true",
+    "opentracing.spring.cloud.jdbc.traceResultSets=true"
+})
+public class JdbcBatchAndResultSetTest {
+
+  @Autowired
+  MockTracer tracer;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Before
+  public void before() {
+    jdbcTemplate.execute("create table if not exists batch_items (id int)");
+    tracer.reset();
+  }
+
+  /**
+   * Make sure prepared and plain statement batches are tagged with their size and fingerprint.
+   */
+  @Test
+  public void batchesAreTagged() {
+    jdbcTemplate.batchUpdate("insert into batch_items values (?)",
+        Arrays.asList(new Object[] {1}, new Object[] {2}, new Object[] {3}));
+    jdbcTemplate.batchUpdate("insert into batch_items values (4)", "insert into batch_items values (5)");
+
+    List<MockSpan> spans = tracer.finishedSpans();
+    assertEquals(2, spans.size());
+    assertEquals(3, spans.get(0).tags().get("db.batch.size"));
+    assertEquals(2, spans.get(1).tags().get("db.batch.size"));
+    assertNotNull(spans.get(0).tags().get("db.statement.fingerprint"));
+    assertEquals(spans.get(0).tags().get("db.statement.fingerprint"),
+        spans.get(1).tags().get("db.statement.fingerprint"));
+  }
+
+  /**
+   * Make sure fetching rows is reported in a span following the query span.
+   */
+  @Test
+  public void resultSetIterationIsReported() {
+    assertEquals(5, jdbcTemplate.queryForList("select x from system_range(1, 5)").size());
+
+    List<MockSpan> spans = tracer.finishedSpans();
+    assertEquals(2, spans.size());
+    MockSpan query = spans.get(0);
+    MockSpan fetch = spans.get(1);
+    assertEquals("Fetch", fetch.operationName());
+    assertEquals(query.context().spanId(), fetch.references().get(0).getContext().spanId());
+    assertEquals(5, fetch.tags().get("db.result_set.rows"));
+    assertNotNull(fetch.tags().get("db.result_set.fetch_micros"));
+  }
+}
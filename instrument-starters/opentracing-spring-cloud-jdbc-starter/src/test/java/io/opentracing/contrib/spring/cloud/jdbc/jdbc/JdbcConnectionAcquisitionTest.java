@@ -0,0 +1,93 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import io.opentracing.Scope;
+import io.opentracing.contrib.spring.cloud.jdbc.MockTracingConfiguration;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.tag.Tags;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * Test behaviour when traceConnectionAcquisition is set
+ */
+@SpringBootTest(classes = {MockTracingConfiguration.class})
+@RunWith(SpringJUnit4ClassRunner.class)
+@TestPropertySource(properties = {
+    "opentracing.spring.cloud.jdbc.traceConnectionAcquisition=true"
+})
+public class JdbcConnectionAcquisitionTest {
+
+  @Autowired
+  MockTracer tracer;
+
+  @Autowired
+  DataSource dataSource;
+
+  @Before
+  public void before() {
+    tracer.reset();
+  }
+
+  /**
+   * Make sure the checkout is traced with stats of the HikariCP pool.
+   */
+  @Test
+  public void acquisitionSpanIsCreatedWithPoolStats() throws SQLException {
+    MockSpan parent = tracer.buildSpan("parent").start();
+    try (Scope ignored = tracer.activateSpan(parent);
+        Connection connection = dataSource.getConnection()) {
+      assertNotNull(connection);
+    } finally {
+      parent.finish();
+    }
+
+    List<MockSpan> spans = tracer.finishedSpans();
+    assertEquals(2, spans.size());
+    MockSpan acquisition = spans.get(0);
+    assertEquals("getConnection", acquisition.operationName());
+    assertEquals(parent.context().spanId(), acquisition.parentId());
+    assertEquals("java-jdbc", acquisition.tags().get(Tags.COMPONENT.getKey()));
+    assertTrue(((Number) acquisition.tags().get("db.pool.total")).intValue() > 0);
+    assertTrue(acquisition.tags().containsKey("db.pool.active"));
+    assertTrue(acquisition.tags().containsKey("db.pool.idle"));
+    assertTrue(acquisition.tags().containsKey("db.pool.pending"));
+  }
+
+  /**
+   * Make sure checkouts outside of a trace do not start one.
+   */
+  @Test
+  public void acquisitionSpanIsNotCreatedWithoutActiveSpan() throws SQLException {
+    try (Connection connection = dataSource.getConnection()) {
+      assertNotNull(connection);
+    }
+    assertEquals(0, tracer.finishedSpans().size());
+  }
+}
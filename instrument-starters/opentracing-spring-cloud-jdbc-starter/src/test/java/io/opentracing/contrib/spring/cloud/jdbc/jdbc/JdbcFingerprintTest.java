@@ -0,0 +1,68 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import io.opentracing.contrib.spring.cloud.jdbc.MockTracingConfiguration;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * Test behaviour when fingerprintOperationName is set
+ */
+@SpringBootTest(classes = {MockTracingConfiguration.class})
+@RunWith(SpringJUnit4ClassRunner.class)
+@TestPropertySource(properties = {
+    "opentracing.spring.cloud.jdbc.fingerprintOperationName=true"
+})
+public class JdbcFingerprintTest {
+
+  @Autowired
+  MockTracer tracer;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Before
+  public void before() {
+    tracer.reset();
+  }
+
+  /**
+   * Make sure statements differing only in literals share operation name and fingerprint.
+   */
+  @Test
+  public void statementsAreFingerprinted() {
+    jdbcTemplate.execute("select 1");
+    jdbcTemplate.execute("select 2");
+
+    assertEquals(2, tracer.finishedSpans().size());
+    MockSpan first = tracer.finishedSpans().get(0);
+    assertEquals("select ?", first.operationName());
+    assertEquals("select 1", first.tags().get("db.statement"));
+    assertNotNull(first.tags().get("db.statement.fingerprint"));
+    assertEquals(first.tags().get("db.statement.fingerprint"),
+        tracer.finishedSpans().get(1).tags().get("db.statement.fingerprint"));
+  }
+}
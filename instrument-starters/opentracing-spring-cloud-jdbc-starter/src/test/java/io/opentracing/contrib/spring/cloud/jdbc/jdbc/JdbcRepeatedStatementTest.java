@@ -0,0 +1,206 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import io.opentracing.Scope;
+import io.opentracing.Span;
+import io.opentracing.contrib.spring.cloud.jdbc.JdbcAspect;
+import io.opentracing.contrib.spring.cloud.jdbc.MockTracingConfiguration;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.tag.Tags;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Test behaviour when repeatedStatementThreshold is set
+ */
+@SpringBootTest(classes = {MockTracingConfiguration.class})
+@RunWith(SpringJUnit4ClassRunner.class)
+@TestPropertySource(properties = {
+    "opentracing.spring.cloud.jdbc.repeatedStatementThreshold=2",
+    "opentracing.spring.cloud.jdbc.repeatedStatementFlushDelay=1h",
+    "opentracing.spring.cloud.jdbc.traceTransactions=true",
+    "opentracing.spring.cloud.jdbc.traceResultSets=true"
+})
+public class JdbcRepeatedStatementTest {
+
+  @Autowired
+  MockTracer tracer;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  JdbcAspect jdbcAspect;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @Before
+  public void before() {
+    tracer.reset();
+  }
+
+  /**
+   * Make sure repeats past the threshold are collapsed and not reported.
+   */
+  @Test
+  public void repeatsAreCollapsed() {
+    Span parent = tracer.buildSpan("parent").start();
+    try (Scope ignored = tracer.activateSpan(parent)) {
+      for (int i = 0; i < 5; i++) {
+        jdbcTemplate.execute("select " + i);
+      }
+      jdbcTemplate.execute("select 1 + 1");
+    }
+    parent.finish();
+    jdbcAspect.close();
+
+    List<MockSpan> aggregates = spans("repeated-statement");
+    assertEquals(1, aggregates.size());
+    MockSpan aggregate = aggregates.get(0);
+    assertEquals(((MockSpan) parent).context().spanId(), aggregate.parentId());
+    assertEquals(3, aggregate.tags().get("db.repeat.count"));
+    assertEquals(true, aggregate.tags().get("db.n_plus_one"));
+    assertEquals("select ?", aggregate.tags().get(Tags.DB_STATEMENT.getKey()));
+
+    List<MockSpan> statements = tracer.finishedSpans().stream()
+        .filter(span -> span.tags().containsKey(Tags.DB_STATEMENT.getKey()) && span != aggregate)
+        .collect(Collectors.toList());
+    assertEquals(3, statements.size());
+    assertEquals("select 1 + 1", statements.get(2).tags().get(Tags.DB_STATEMENT.getKey()));
+    for (MockSpan statement : statements) {
+      assertFalse(statement.tags().containsKey(Tags.SAMPLING_PRIORITY.getKey()));
+    }
+  }
+
+  /**
+   * Make sure interleaved repeats keep one aggregate per statement.
+   */
+  @Test
+  public void interleavedRepeatsKeepTheirAggregates() {
+    Span parent = tracer.buildSpan("parent").start();
+    try (Scope ignored = tracer.activateSpan(parent)) {
+      for (int i = 0; i < 5; i++) {
+        jdbcTemplate.execute("select " + i);
+        jdbcTemplate.execute("select 1 + " + i);
+      }
+    }
+    parent.finish();
+    assertEquals(0, spans("repeated-statement").size());
+
+    jdbcAspect.close();
+
+    List<MockSpan> aggregates = spans("repeated-statement");
+    assertEquals(2, aggregates.size());
+    for (MockSpan aggregate : aggregates) {
+      assertEquals(3, aggregate.tags().get("db.repeat.count"));
+    }
+  }
+
+  /**
+   * Make sure the aggregate of repeats in a traced transaction is a child of the transaction span,
+   * like the statements it replaces.
+   */
+  @Test
+  public void repeatsInTransactionAreChildrenOfIt() {
+    Span parent = tracer.buildSpan("parent").start();
+    try (Scope ignored = tracer.activateSpan(parent)) {
+      new TransactionTemplate(transactionManager).execute(status -> {
+        for (int i = 0; i < 3; i++) {
+          jdbcTemplate.execute("select " + i);
+        }
+        return null;
+      });
+    }
+    parent.finish();
+    jdbcAspect.close();
+
+    MockSpan transaction = spans("transaction").get(0);
+    MockSpan aggregate = spans("repeated-statement").get(0);
+    assertEquals(transaction.context().spanId(), aggregate.parentId());
+    assertEquals(1, aggregate.tags().get("db.repeat.count"));
+  }
+
+  /**
+   * Make sure collapsed queries do not report the fetch of their rows.
+   */
+  @Test
+  public void fetchOfCollapsedQueriesIsNotReported() {
+    Span parent = tracer.buildSpan("parent").start();
+    try (Scope ignored = tracer.activateSpan(parent)) {
+      for (int i = 0; i < 4; i++) {
+        jdbcTemplate.queryForList("select " + i);
+      }
+    }
+    parent.finish();
+    jdbcAspect.close();
+
+    assertEquals(2, spans("Fetch").size());
+    assertEquals(2, spans("repeated-statement").get(0).tags().get("db.repeat.count"));
+  }
+
+  /**
+   * Make sure a pending aggregate span is finished when the aspect is closed.
+   */
+  @Test
+  public void pendingRepeatsAreFlushedOnClose() {
+    Span parent = tracer.buildSpan("parent").start();
+    try (Scope ignored = tracer.activateSpan(parent)) {
+      for (int i = 0; i < 3; i++) {
+        jdbcTemplate.execute("select " + i);
+      }
+    }
+    parent.finish();
+    assertEquals(0, spans("repeated-statement").size());
+
+    jdbcAspect.close();
+
+    assertEquals(1, spans("repeated-statement").size());
+    assertEquals(1, spans("repeated-statement").get(0).tags().get("db.repeat.count"));
+  }
+
+  /**
+   * Make sure statements without an active span are never collapsed.
+   */
+  @Test
+  public void statementsWithoutParentAreKept() {
+    for (int i = 0; i < 5; i++) {
+      jdbcTemplate.execute("select " + i);
+    }
+
+    assertEquals(5, tracer.finishedSpans().size());
+    assertEquals(0, spans("repeated-statement").size());
+  }
+
+  private List<MockSpan> spans(String operationName) {
+    return tracer.finishedSpans().stream()
+        .filter(span -> operationName.equals(span.operationName()))
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import io.opentracing.Scope;
+import io.opentracing.Span;
+import io.opentracing.contrib.spring.cloud.jdbc.MockTracingConfiguration;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.tag.Tags;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * Test behaviour when slowQueryThreshold is set
+ */
+@SpringBootTest(classes = {MockTracingConfiguration.class})
+@RunWith(SpringJUnit4ClassRunner.class)
+@TestPropertySource(properties = {
+    "opentracing.spring.cloud.jdbc.slowQueryThreshold=1h",
+    "opentracing.spring.cloud.jdbc.traceResultSets=true"
+})
+public class JdbcSlowQueryTest {
+
+  @Autowired
+  MockTracer tracer;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Before
+  public void before() {
+    tracer.reset();
+  }
+
+  /**
+   * Make sure fast statements are not reported.
+   */
+  @Test
+  public void fastStatementIsNotReported() {
+    jdbcTemplate.execute("select 1");
+
+    assertEquals(0, tracer.finishedSpans().size());
+  }
+
+  /**
+   * Make sure the fetch of a fast query is not reported either.
+   */
+  @Test
+  public void fetchOfFastQueryIsNotReported() {
+    Span parent = tracer.buildSpan("parent").start();
+    try (Scope ignored = tracer.activateSpan(parent)) {
+      assertEquals(1, jdbcTemplate.queryForList("select 1").size());
+    }
+
+    assertEquals(0, tracer.finishedSpans().size());
+  }
+
+  /**
+   * Make sure failed statements are kept however fast they are.
+   */
+  @Test
+  public void failedStatementIsKept() {
+    try {
+      jdbcTemplate.execute("select * from missing_table");
+    } catch (DataAccessException expected) {
+      // the span is what matters
+    }
+
+    assertEquals(1, tracer.finishedSpans().size());
+    MockSpan span = tracer.finishedSpans().get(0);
+    assertEquals(true, span.tags().get(Tags.ERROR.getKey()));
+    assertFalse(span.tags().containsKey(Tags.SAMPLING_PRIORITY.getKey()));
+  }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.jdbc.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.opentracing.Scope;
+import io.opentracing.Span;
+import io.opentracing.contrib.spring.cloud.jdbc.MockTracingConfiguration;
+import io.opentracing.contrib.spring.cloud.jdbc.data.TestEntityRepository;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.tag.Tags;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Test behaviour when traceTransactions is set
+ */
+@SpringBootTest(classes = {MockTracingConfiguration.class})
+@RunWith(SpringJUnit4ClassRunner.class)
+@TestPropertySource(properties = {
+    "opentracing.spring.cloud.jdbc.traceTransactions=true"
+})
+public class JdbcTransactionTest {
+
+  @Autowired
+  MockTracer tracer;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  JpaTransactionManager transactionManager;
+
+  @Autowired
+  TestEntityRepository testEntityRepository;
+
+  @Before
+  public void before() {
+    tracer.reset();
+  }
+
+  /**
+   * Make sure a committed transaction is traced with the statements executed inside it.
+   */
+  @Test
+  public void committedTransactionIsTraced() {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    Span parent = tracer.buildSpan("parent").start();
+    try (Scope ignored = tracer.activateSpan(parent)) {
+      transactionTemplate.execute(status -> {
+        jdbcTemplate.execute("select 1");
+        assertSame(parent, tracer.activeSpan());
+        jdbcTemplate.execute("select 2");
+        return null;
+      });
+    }
+
+    List<MockSpan> spans = tracer.finishedSpans();
+    assertEquals(3, spans.size());
+    MockSpan transaction = spans.get(2);
+    assertEquals("transaction", transaction.operationName());
+    assertEquals("READ_COMMITTED", transaction.tags().get("tx.isolation_level"));
+    assertEquals(((MockSpan) parent).context().spanId(), transaction.parentId());
+    assertEquals("commit", transaction.tags().get("tx.outcome"));
+    assertEquals(2, transaction.tags().get("tx.statements"));
+    assertEquals(transaction.context().spanId(), spans.get(0).parentId());
+    assertEquals(transaction.context().spanId(), spans.get(1).parentId());
+  }
+
+  /**
+   * Make sure the span starts when the transaction begins, not with its first statement.
+   */
+  @Test
+  public void transactionSpanStartsWithTransaction() {
+    new TransactionTemplate(transactionManager).execute(status -> {
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      jdbcTemplate.execute("select 1");
+      return null;
+    });
+
+    List<MockSpan> spans = tracer.finishedSpans();
+    assertEquals(2, spans.size());
+    assertTrue(spans.get(0).startMicros() - spans.get(1).startMicros() >= 20_000);
+  }
+
+  /**
+   * Make sure a transaction of a {@code @Transactional} method is tagged with its attribute.
+   */
+  @Test
+  public void declaredTransactionIsTagged() {
+    testEntityRepository.count();
+
+    List<MockSpan> spans = tracer.finishedSpans();
+    assertEquals(2, spans.size());
+    MockSpan transaction = spans.get(1);
+    assertEquals("REQUIRED", transaction.tags().get("tx.propagation"));
+    assertEquals(true, transaction.tags().get("tx.read_only"));
+  }
+
+  /**
+   * Make sure a transaction marked rollback-only is reported as rolled back, and that joining it
+   * does not start another span.
+   */
+  @Test
+  public void rolledBackTransactionIsTraced() {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.execute(status -> {
+      transactionTemplate.execute(inner -> {
+        jdbcTemplate.execute("select 1");
+        return null;
+      });
+      status.setRollbackOnly();
+      return null;
+    });
+
+    List<MockSpan> spans = tracer.finishedSpans();
+    assertEquals(2, spans.size());
+    MockSpan transaction = spans.get(1);
+    assertEquals("rollback", transaction.tags().get("tx.outcome"));
+    assertEquals(1, transaction.tags().get("tx.statements"));
+    assertNull(transaction.tags().get(Tags.ERROR.getKey()));
+  }
+
+  /**
+   * Make sure a transaction suspended by a new one keeps its own span and statements.
+   */
+  @Test
+  public void suspendedTransactionIsResumed() {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    TransactionTemplate newTransactionTemplate = new TransactionTemplate(transactionManager);
+    newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    transactionTemplate.execute(status -> {
+      jdbcTemplate.execute("select 1");
+      newTransactionTemplate.execute(inner -> {
+        jdbcTemplate.execute("select 2");
+        return null;
+      });
+      jdbcTemplate.execute("select 3");
+      return null;
+    });
+
+    List<MockSpan> spans = tracer.finishedSpans();
+    assertEquals(5, spans.size());
+    MockSpan inner = spans.get(2);
+    MockSpan outer = spans.get(4);
+    assertEquals(1, inner.tags().get("tx.statements"));
+    assertEquals(inner.context().spanId(), spans.get(1).parentId());
+    assertEquals(2, outer.tags().get("tx.statements"));
+    assertEquals(outer.context().spanId(), spans.get(0).parentId());
+    assertEquals(outer.context().spanId(), spans.get(3).parentId());
+  }
+}
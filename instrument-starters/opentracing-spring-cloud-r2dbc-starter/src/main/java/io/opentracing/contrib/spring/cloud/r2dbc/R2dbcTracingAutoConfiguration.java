@@ -0,0 +1,54 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.r2dbc;
+
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
+import io.opentracing.contrib.spring.tracer.configuration.TracerAutoConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Flux;
+
+/**
+ * Wraps {@link ConnectionFactory} beans so that statements they execute are traced.
+ */
+@Configuration
+@AutoConfigureAfter(TracerAutoConfiguration.class)
+@ConditionalOnClass({ConnectionFactory.class, Flux.class})
+@ConditionalOnBean(Tracer.class)
+@ConditionalOnProperty(name = "opentracing.spring.cloud.r2dbc.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(R2dbcTracingProperties.class)
+public class R2dbcTracingAutoConfiguration {
+
+  private final Tracer tracer;
+  private final R2dbcTracingProperties r2dbcTracingProperties;
+
+  public R2dbcTracingAutoConfiguration(Tracer tracer, R2dbcTracingProperties r2dbcTracingProperties) {
+    this.tracer = tracer;
+    this.r2dbcTracingProperties = r2dbcTracingProperties;
+  }
+
+  @Bean
+  TracingConnectionFactoryPostProcessor tracingConnectionFactoryPostProcessor(
+      ObjectProvider<ErrorCapture> errorCapture) {
+    return new TracingConnectionFactoryPostProcessor(tracer, r2dbcTracingProperties, errorCapture);
+  }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.r2dbc;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "opentracing.spring.cloud.r2dbc")
+public class R2dbcTracingProperties {
+
+  /**
+   * Trace R2DBC statements only if they are part of an active span.
+   */
+  private boolean withActiveSpanOnly = false;
+  /**
+   * Set of R2DBC statements to not trace.
+   */
+  private Set<String> ignoreStatements = new HashSet<>();
+  /**
+   * Trace reactive transactions, from the moment their connection begins them until they are
+   * committed or rolled back.
+   */
+  private boolean traceTransactions = false;
+
+  public boolean isWithActiveSpanOnly() {
+    return withActiveSpanOnly;
+  }
+
+  public void setWithActiveSpanOnly(boolean withActiveSpanOnly) {
+    this.withActiveSpanOnly = withActiveSpanOnly;
+  }
+
+  public boolean isTraceTransactions() {
+    return traceTransactions;
+  }
+
+  public void setTraceTransactions(boolean traceTransactions) {
+    this.traceTransactions = traceTransactions;
+  }
+
+  public Set<String> getIgnoreStatements() {
+    return ignoreStatements;
+  }
+
+  public void setIgnoreStatements(Set<String> ignoreStatements) {
+    this.ignoreStatements = ignoreStatements;
+  }
+}
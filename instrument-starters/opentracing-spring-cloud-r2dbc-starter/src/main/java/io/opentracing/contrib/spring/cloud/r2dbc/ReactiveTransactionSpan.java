@@ -0,0 +1,186 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.r2dbc;
+
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.tag.BooleanTag;
+import io.opentracing.tag.IntTag;
+import io.opentracing.tag.StringTag;
+import io.opentracing.tag.Tags;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.reactive.TransactionContext;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Span of a reactive transaction, from the moment its connection began it, or else its first
+ * statement, until it is committed or rolled back. It is registered as a synchronization of the
+ * transaction by the first statement and bound to it as a resource of the
+ * Spring {@link TransactionContext}, which travels in the Reactor {@link Context}, so that
+ * statements executed inside the transaction find it. The transaction managers are left untouched.
+ */
+final class ReactiveTransactionSpan implements TransactionSynchronization {
+
+  static final String OPERATION_NAME = "transaction";
+  static final String COMPONENT_NAME = "spring-tx";
+  static final StringTag NAME_TAG = new StringTag("tx.name");
+  static final StringTag ISOLATION_LEVEL_TAG = new StringTag("tx.isolation_level");
+  static final StringTag OUTCOME_TAG = new StringTag("tx.outcome");
+  static final IntTag STATEMENTS_TAG = new IntTag("tx.statements");
+  static final BooleanTag READ_ONLY_TAG = new BooleanTag("tx.read_only");
+  static final String COMPLETION_TIME_KEY = "tx.completion_micros";
+
+  private static final Isolation[] ISOLATIONS = Isolation.values();
+  private static final Object RESOURCE_KEY = ReactiveTransactionSpan.class;
+  private static final Object BEGIN_RESOURCE_KEY = ReactiveTransactionSpan.class.getName() + ".begin";
+
+  private final Span span;
+  private final TransactionSynchronizationManager synchronizationManager;
+  private final AtomicInteger statements = new AtomicInteger();
+  private volatile long completionStartNanos;
+
+  private ReactiveTransactionSpan(Span span, TransactionSynchronizationManager synchronizationManager) {
+    this.span = span;
+    this.synchronizationManager = synchronizationManager;
+  }
+
+  /**
+   * Records that a connection began the transaction of the given Reactor context, the span of the
+   * transaction starts at that time.
+   */
+  static void markBegin(Context context, long beginMicros) {
+    TransactionContext transactionContext = context.getOrDefault(TransactionContext.class, null);
+    if (transactionContext == null) {
+      return;
+    }
+    TransactionSynchronizationManager synchronizationManager =
+        new TransactionSynchronizationManager(transactionContext);
+    synchronizationManager.unbindResourceIfPossible(BEGIN_RESOURCE_KEY);
+    synchronizationManager.bindResource(BEGIN_RESOURCE_KEY, beginMicros);
+  }
+
+  /**
+   * @return transaction in progress in the given Reactor context, its span is started when the
+   *     first statement joins it; {@code null} outside of a transaction
+   */
+  static ReactiveTransactionSpan join(Tracer tracer, Context context) {
+    TransactionContext transactionContext = context.getOrDefault(TransactionContext.class, null);
+    if (transactionContext == null) {
+      return null;
+    }
+    TransactionSynchronizationManager synchronizationManager =
+        new TransactionSynchronizationManager(transactionContext);
+    Object resource = synchronizationManager.getResource(RESOURCE_KEY);
+    if (resource != null || !synchronizationManager.isSynchronizationActive()
+        || !synchronizationManager.isActualTransactionActive()) {
+      return (ReactiveTransactionSpan) resource;
+    }
+    Tracer.SpanBuilder spanBuilder = tracer.buildSpan(OPERATION_NAME)
+        .ignoreActiveSpan()
+        .withTag(Tags.COMPONENT.getKey(), COMPONENT_NAME);
+    Span parent = context.getOrDefault(Span.class, tracer.activeSpan());
+    if (parent != null) {
+      spanBuilder.asChildOf(parent);
+    }
+    Object beginMicros = synchronizationManager.unbindResourceIfPossible(BEGIN_RESOURCE_KEY);
+    if (beginMicros != null) {
+      spanBuilder.withStartTimestamp((Long) beginMicros);
+    }
+    Span span = spanBuilder.start();
+    String name = synchronizationManager.getCurrentTransactionName();
+    if (name != null) {
+      NAME_TAG.set(span, name);
+    }
+    Integer isolationLevel = synchronizationManager.getCurrentTransactionIsolationLevel();
+    ISOLATION_LEVEL_TAG.set(span, isolationLevel(isolationLevel != null ? isolationLevel
+        : TransactionDefinition.ISOLATION_DEFAULT));
+    READ_ONLY_TAG.set(span, synchronizationManager.isCurrentTransactionReadOnly());
+    ReactiveTransactionSpan transactionSpan = new ReactiveTransactionSpan(span, synchronizationManager);
+    synchronizationManager.registerSynchronization(transactionSpan);
+    synchronizationManager.bindResource(RESOURCE_KEY, transactionSpan);
+    return transactionSpan;
+  }
+
+  Span getSpan() {
+    return span;
+  }
+
+  void onStatement() {
+    statements.incrementAndGet();
+  }
+
+  @Override
+  public Mono<Void> suspend() {
+    return Mono.fromRunnable(() -> synchronizationManager.unbindResource(RESOURCE_KEY));
+  }
+
+  @Override
+  public Mono<Void> resume() {
+    return Mono.fromRunnable(() -> synchronizationManager.bindResource(RESOURCE_KEY, this));
+  }
+
+  @Override
+  public Mono<Void> beforeCommit(boolean readOnly) {
+    return Mono.empty();
+  }
+
+  @Override
+  public Mono<Void> beforeCompletion() {
+    return Mono.fromRunnable(() -> completionStartNanos = System.nanoTime());
+  }
+
+  @Override
+  public Mono<Void> afterCommit() {
+    return Mono.empty();
+  }
+
+  @Override
+  public Mono<Void> afterCompletion(int status) {
+    return Mono.fromRunnable(() -> end(status));
+  }
+
+  private void end(int status) {
+    synchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+    if (status == STATUS_COMMITTED) {
+      OUTCOME_TAG.set(span, "commit");
+    } else if (status == STATUS_ROLLED_BACK) {
+      OUTCOME_TAG.set(span, "rollback");
+    } else {
+      // heuristic outcome or failure to complete
+      OUTCOME_TAG.set(span, "unknown");
+      Tags.ERROR.set(span, Boolean.TRUE);
+    }
+    STATEMENTS_TAG.set(span, statements.get());
+    if (completionStartNanos != 0) {
+      span.setTag(COMPLETION_TIME_KEY,
+          TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - completionStartNanos));
+    }
+    span.finish();
+  }
+
+  static String isolationLevel(int isolationLevel) {
+    for (Isolation isolation : ISOLATIONS) {
+      if (isolation.value() == isolationLevel) {
+        return isolation.name();
+      }
+    }
+    return String.valueOf(isolationLevel);
+  }
+}
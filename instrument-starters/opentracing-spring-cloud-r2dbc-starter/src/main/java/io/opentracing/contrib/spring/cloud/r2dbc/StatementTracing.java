@@ -0,0 +1,122 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.r2dbc;
+
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
+import io.opentracing.tag.Tags;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.reactivestreams.Publisher;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Traces statement executions. The span is started when the results are subscribed to, as a child
+ * of the traced transaction the statement is part of, else of the span in the subscriber
+ * {@link reactor.util.context.Context} or else the active span, and
+ * finished when the results complete, fail or are cancelled. It is itself put in the context of
+ * the driver publisher.
+ */
+class StatementTracing {
+
+  static final String COMPONENT_NAME = "java-r2dbc";
+  private static final boolean TRANSACTIONS_PRESENT = ClassUtils.isPresent(
+      "org.springframework.transaction.reactive.TransactionContext", StatementTracing.class.getClassLoader());
+
+  private final Tracer tracer;
+  private final ErrorCapture errorCapture;
+  private final String dbType;
+  private final boolean withActiveSpanOnly;
+  private final Set<String> ignoredStatements;
+  private final boolean traceTransactions;
+
+  StatementTracing(Tracer tracer, ErrorCapture errorCapture, String databaseName,
+      boolean withActiveSpanOnly, Set<String> ignoredStatements, boolean traceTransactions) {
+    this.tracer = tracer;
+    this.errorCapture = errorCapture;
+    this.dbType = databaseName != null ? databaseName.toLowerCase(Locale.ROOT) : null;
+    this.withActiveSpanOnly = withActiveSpanOnly;
+    this.ignoredStatements = ignoredStatements;
+    this.traceTransactions = traceTransactions && TRANSACTIONS_PRESENT;
+  }
+
+  <T> Publisher<T> trace(String operationName, String sql, Publisher<T> results) {
+    if (ignoredStatements != null && ignoredStatements.contains(sql)) {
+      return results;
+    }
+    return Flux.deferWithContext(context -> {
+      ReactiveTransactionSpan transaction = traceTransactions
+          ? ReactiveTransactionSpan.join(tracer, context) : null;
+      Span parent = transaction != null ? transaction.getSpan() : context.getOrDefault(Span.class, null);
+      if (parent == null) {
+        parent = tracer.activeSpan();
+      }
+      if (parent == null && withActiveSpanOnly) {
+        return results;
+      }
+      Span span = start(operationName, sql, parent);
+      if (transaction != null) {
+        transaction.onStatement();
+      }
+      // operators like flatMap cancel their source even after it failed
+      AtomicBoolean finished = new AtomicBoolean();
+      Runnable finish = () -> {
+        if (finished.compareAndSet(false, true)) {
+          span.finish();
+        }
+      };
+      return Flux.from(results)
+          .doOnError(error -> errorCapture.capture(span, error))
+          .doOnTerminate(finish)
+          .doOnCancel(finish)
+          .subscriberContext(upstream -> upstream.put(Span.class, span));
+    });
+  }
+
+  /**
+   * Records when a connection begins the traced transaction it is part of.
+   */
+  Publisher<Void> begin(Publisher<Void> begin) {
+    if (!traceTransactions) {
+      return begin;
+    }
+    return Mono.subscriberContext().flatMap(context -> {
+      long beginMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+      return Mono.from(begin)
+          .doOnSuccess(ignored -> ReactiveTransactionSpan.markBegin(context, beginMicros));
+    });
+  }
+
+  private Span start(String operationName, String sql, Span parent) {
+    Tracer.SpanBuilder spanBuilder = tracer.buildSpan(operationName)
+        .ignoreActiveSpan()
+        .withTag(Tags.SPAN_KIND.getKey(), Tags.SPAN_KIND_CLIENT)
+        .withTag(Tags.COMPONENT.getKey(), COMPONENT_NAME);
+    if (parent != null) {
+      spanBuilder.asChildOf(parent);
+    }
+    if (dbType != null) {
+      spanBuilder.withTag(Tags.DB_TYPE.getKey(), dbType);
+    }
+    if (sql != null && !sql.isEmpty()) {
+      spanBuilder.withTag(Tags.DB_STATEMENT.getKey(), sql);
+    }
+    return spanBuilder.start();
+  }
+}
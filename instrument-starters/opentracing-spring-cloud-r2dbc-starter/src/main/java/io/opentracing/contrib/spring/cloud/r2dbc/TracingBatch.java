@@ -0,0 +1,45 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.r2dbc;
+
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Result;
+import java.util.StringJoiner;
+import org.reactivestreams.Publisher;
+
+class TracingBatch implements Batch {
+
+  static final String OPERATION_NAME = "Batch";
+
+  private final Batch delegate;
+  private final StatementTracing statementTracing;
+  private final StringJoiner sql = new StringJoiner("; ");
+
+  TracingBatch(Batch delegate, StatementTracing statementTracing) {
+    this.delegate = delegate;
+    this.statementTracing = statementTracing;
+  }
+
+  @Override
+  public Batch add(String sql) {
+    delegate.add(sql);
+    this.sql.add(sql);
+    return this;
+  }
+
+  @Override
+  public Publisher<? extends Result> execute() {
+    return statementTracing.trace(OPERATION_NAME, sql.toString(), delegate.execute());
+  }
+}
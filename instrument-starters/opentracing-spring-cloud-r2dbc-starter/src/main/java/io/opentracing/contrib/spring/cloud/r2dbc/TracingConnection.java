@@ -0,0 +1,114 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.r2dbc;
+
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionMetadata;
+import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.ValidationDepth;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+
+class TracingConnection implements Connection, Wrapped<Connection> {
+
+  private final Connection delegate;
+  private final StatementTracing statementTracing;
+
+  TracingConnection(Connection delegate, StatementTracing statementTracing) {
+    this.delegate = delegate;
+    this.statementTracing = statementTracing;
+  }
+
+  @Override
+  public Statement createStatement(String sql) {
+    return new TracingStatement(delegate.createStatement(sql), sql, statementTracing);
+  }
+
+  @Override
+  public Batch createBatch() {
+    return new TracingBatch(delegate.createBatch(), statementTracing);
+  }
+
+  @Override
+  public Publisher<Void> beginTransaction() {
+    return statementTracing.begin(delegate.beginTransaction());
+  }
+
+  @Override
+  public Publisher<Void> close() {
+    return delegate.close();
+  }
+
+  @Override
+  public Publisher<Void> commitTransaction() {
+    return delegate.commitTransaction();
+  }
+
+  @Override
+  public Publisher<Void> createSavepoint(String name) {
+    return delegate.createSavepoint(name);
+  }
+
+  @Override
+  public boolean isAutoCommit() {
+    return delegate.isAutoCommit();
+  }
+
+  @Override
+  public ConnectionMetadata getMetadata() {
+    return delegate.getMetadata();
+  }
+
+  @Override
+  public IsolationLevel getTransactionIsolationLevel() {
+    return delegate.getTransactionIsolationLevel();
+  }
+
+  @Override
+  public Publisher<Void> releaseSavepoint(String name) {
+    return delegate.releaseSavepoint(name);
+  }
+
+  @Override
+  public Publisher<Void> rollbackTransaction() {
+    return delegate.rollbackTransaction();
+  }
+
+  @Override
+  public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+    return delegate.rollbackTransactionToSavepoint(name);
+  }
+
+  @Override
+  public Publisher<Void> setAutoCommit(boolean autoCommit) {
+    return delegate.setAutoCommit(autoCommit);
+  }
+
+  @Override
+  public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+    return delegate.setTransactionIsolationLevel(isolationLevel);
+  }
+
+  @Override
+  public Publisher<Boolean> validate(ValidationDepth depth) {
+    return delegate.validate(depth);
+  }
+
+  @Override
+  public Connection unwrap() {
+    return delegate;
+  }
+}
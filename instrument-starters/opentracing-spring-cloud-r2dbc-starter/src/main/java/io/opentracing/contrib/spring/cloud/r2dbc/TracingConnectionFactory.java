@@ -0,0 +1,119 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.r2dbc;
+
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Set;
+import org.reactivestreams.Publisher;
+import org.springframework.util.ClassUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ConnectionFactory} handing out connections whose statements are traced. Closing or
+ * disposing it closes or disposes the delegate, so that pools replaced by it in the application
+ * context are still shut down with it.
+ *
+ * <p>Only R2DBC SPI 0.8 is supported, later versions add connection methods that are not
+ * delegated and fail with {@link IllegalStateException} when the factory is created.
+ */
+public class TracingConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory>,
+    Closeable, Disposable {
+
+  private static final boolean SPI_0_9_PRESENT = ClassUtils.isPresent(
+      "io.r2dbc.spi.TransactionDefinition", TracingConnectionFactory.class.getClassLoader());
+
+  private final ConnectionFactory delegate;
+  private final StatementTracing statementTracing;
+
+  public TracingConnectionFactory(ConnectionFactory delegate, Tracer tracer,
+      boolean withActiveSpanOnly, Set<String> ignoredStatements) {
+    this(delegate, tracer, withActiveSpanOnly, ignoredStatements, false);
+  }
+
+  /**
+   * @param traceTransactions trace the Spring reactive transactions statements are part of
+   */
+  public TracingConnectionFactory(ConnectionFactory delegate, Tracer tracer,
+      boolean withActiveSpanOnly, Set<String> ignoredStatements, boolean traceTransactions) {
+    this(delegate, tracer, ErrorCapture.noDeduplication(), withActiveSpanOnly, ignoredStatements,
+        traceTransactions);
+  }
+
+  /**
+   * @param errorCapture builds the error logs of failed statements
+   * @param traceTransactions trace the Spring reactive transactions statements are part of
+   */
+  public TracingConnectionFactory(ConnectionFactory delegate, Tracer tracer,
+      ErrorCapture errorCapture, boolean withActiveSpanOnly, Set<String> ignoredStatements,
+      boolean traceTransactions) {
+    if (SPI_0_9_PRESENT) {
+      throw new IllegalStateException("R2DBC tracing supports R2DBC SPI 0.8 only, disable it with "
+          + "opentracing.spring.cloud.r2dbc.enabled=false");
+    }
+    this.delegate = delegate;
+    this.statementTracing = new StatementTracing(tracer, errorCapture,
+        delegate.getMetadata().getName(), withActiveSpanOnly, ignoredStatements, traceTransactions);
+  }
+
+  @Override
+  public Publisher<? extends Connection> create() {
+    return Mono.from(delegate.create())
+        .map(connection -> new TracingConnection(connection, statementTracing));
+  }
+
+  @Override
+  public ConnectionFactoryMetadata getMetadata() {
+    return delegate.getMetadata();
+  }
+
+  @Override
+  public ConnectionFactory unwrap() {
+    return delegate;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (delegate instanceof Closeable) {
+      ((Closeable) delegate).close();
+    } else if (delegate instanceof Disposable) {
+      ((Disposable) delegate).dispose();
+    }
+  }
+
+  @Override
+  public void dispose() {
+    if (delegate instanceof Disposable) {
+      ((Disposable) delegate).dispose();
+    } else if (delegate instanceof Closeable) {
+      try {
+        ((Closeable) delegate).close();
+      } catch (IOException ex) {
+        throw new IllegalStateException("Failed to close " + delegate, ex);
+      }
+    }
+  }
+
+  @Override
+  public boolean isDisposed() {
+    return delegate instanceof Disposable && ((Disposable) delegate).isDisposed();
+  }
+}
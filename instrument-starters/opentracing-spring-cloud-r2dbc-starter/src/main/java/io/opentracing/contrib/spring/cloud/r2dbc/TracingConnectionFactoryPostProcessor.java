@@ -0,0 +1,66 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.r2dbc;
+
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Wraps {@link ConnectionFactory} beans in a {@link TracingConnectionFactory}, except for those
+ * already delegating to one, e.g. a pool created over another traced factory bean.
+ */
+class TracingConnectionFactoryPostProcessor implements BeanPostProcessor {
+
+  private final Tracer tracer;
+  private final R2dbcTracingProperties r2dbcTracingProperties;
+  private final ObjectProvider<ErrorCapture> errorCapture;
+
+  TracingConnectionFactoryPostProcessor(Tracer tracer, R2dbcTracingProperties r2dbcTracingProperties,
+      ObjectProvider<ErrorCapture> errorCapture) {
+    this.tracer = tracer;
+    this.r2dbcTracingProperties = r2dbcTracingProperties;
+    this.errorCapture = errorCapture;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+    if (bean instanceof ConnectionFactory && !isTraced(bean)) {
+      return new TracingConnectionFactory((ConnectionFactory) bean, tracer,
+          errorCapture.getIfAvailable(ErrorCapture::noDeduplication),
+          r2dbcTracingProperties.isWithActiveSpanOnly(), r2dbcTracingProperties.getIgnoreStatements(),
+          r2dbcTracingProperties.isTraceTransactions());
+    }
+    return bean;
+  }
+
+  private static boolean isTraced(Object connectionFactory) {
+    Object current = connectionFactory;
+    while (!(current instanceof TracingConnectionFactory)) {
+      if (!(current instanceof Wrapped)) {
+        return false;
+      }
+      Object unwrapped = ((Wrapped<?>) current).unwrap();
+      if (unwrapped == current) {
+        return false;
+      }
+      current = unwrapped;
+    }
+    return true;
+  }
+}
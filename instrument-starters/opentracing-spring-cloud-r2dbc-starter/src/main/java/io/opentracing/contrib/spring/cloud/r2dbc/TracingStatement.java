@@ -0,0 +1,80 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.r2dbc;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.reactivestreams.Publisher;
+
+class TracingStatement implements Statement {
+
+  static final String OPERATION_NAME = "Execute";
+
+  private final Statement delegate;
+  private final String sql;
+  private final StatementTracing statementTracing;
+
+  TracingStatement(Statement delegate, String sql, StatementTracing statementTracing) {
+    this.delegate = delegate;
+    this.sql = sql;
+    this.statementTracing = statementTracing;
+  }
+
+  @Override
+  public Statement add() {
+    delegate.add();
+    return this;
+  }
+
+  @Override
+  public Statement bind(int index, Object value) {
+    delegate.bind(index, value);
+    return this;
+  }
+
+  @Override
+  public Statement bind(String name, Object value) {
+    delegate.bind(name, value);
+    return this;
+  }
+
+  @Override
+  public Statement bindNull(int index, Class<?> type) {
+    delegate.bindNull(index, type);
+    return this;
+  }
+
+  @Override
+  public Statement bindNull(String name, Class<?> type) {
+    delegate.bindNull(name, type);
+    return this;
+  }
+
+  @Override
+  public Statement returnGeneratedValues(String... columns) {
+    delegate.returnGeneratedValues(columns);
+    return this;
+  }
+
+  @Override
+  public Statement fetchSize(int rows) {
+    delegate.fetchSize(rows);
+    return this;
+  }
+
+  @Override
+  public Publisher<? extends Result> execute() {
+    return statementTracing.trace(OPERATION_NAME, sql, delegate.execute());
+  }
+}
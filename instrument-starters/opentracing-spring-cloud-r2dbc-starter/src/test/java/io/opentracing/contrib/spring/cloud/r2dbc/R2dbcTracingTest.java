@@ -0,0 +1,264 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.r2dbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.opentracing.Span;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.tag.Tags;
+import io.opentracing.util.GlobalTracerTestUtil;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Wrapped;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+@SpringBootTest(classes = {R2dbcTracingTest.TestConfiguration.class})
+@RunWith(SpringJUnit4ClassRunner.class)
+public class R2dbcTracingTest {
+
+  @Configuration
+  @EnableAutoConfiguration
+  static class TestConfiguration {
+
+    @Bean
+    public MockTracer mockTracer() {
+      GlobalTracerTestUtil.resetGlobalTracer();
+      return new MockTracer();
+    }
+
+    @Bean
+    public ConnectionFactory connectionFactory() {
+      return H2ConnectionFactory.inMemory("r2dbc-tracing");
+    }
+  }
+
+  @Autowired
+  MockTracer tracer;
+
+  @Autowired
+  ConnectionFactory connectionFactory;
+
+  @Before
+  public void before() {
+    tracer.reset();
+  }
+
+  /**
+   * Make sure the statement span is finished together with its results.
+   */
+  @Test
+  public void statementIsTraced() {
+    assertTrue(connectionFactory instanceof TracingConnectionFactory);
+
+    List<Object> values = execute(connection -> connection.createStatement("select 1").execute())
+        .collectList().block();
+
+    assertEquals(1, values.size());
+    assertEquals(1, tracer.finishedSpans().size());
+    MockSpan span = tracer.finishedSpans().get(0);
+    assertEquals("Execute", span.operationName());
+    assertEquals("select 1", span.tags().get(Tags.DB_STATEMENT.getKey()));
+    assertEquals("h2", span.tags().get(Tags.DB_TYPE.getKey()));
+    assertEquals("java-r2dbc", span.tags().get(Tags.COMPONENT.getKey()));
+    assertEquals(Tags.SPAN_KIND_CLIENT, span.tags().get(Tags.SPAN_KIND.getKey()));
+  }
+
+  /**
+   * Make sure the parent span is taken from the Reactor context, no span being active.
+   */
+  @Test
+  public void parentIsTakenFromReactorContext() {
+    Span parent = tracer.buildSpan("parent").start();
+
+    execute(connection -> connection.createStatement("select 1").execute())
+        .subscriberContext(Context.of(Span.class, parent))
+        .blockLast();
+    parent.finish();
+
+    assertEquals(2, tracer.finishedSpans().size());
+    assertEquals(((MockSpan) parent).context().spanId(), tracer.finishedSpans().get(0).parentId());
+  }
+
+  /**
+   * Make sure failures are tagged and logged.
+   */
+  @Test
+  public void failedStatementIsTagged() {
+    execute(connection -> connection.createStatement("select * from missing_table").execute())
+        .onErrorResume(error -> Mono.empty())
+        .blockLast();
+
+    assertEquals(1, tracer.finishedSpans().size());
+    MockSpan span = tracer.finishedSpans().get(0);
+    assertEquals(true, span.tags().get(Tags.ERROR.getKey()));
+    assertEquals(Tags.ERROR.getKey(), span.logEntries().get(0).fields().get("event"));
+    assertTrue(span.logEntries().get(0).fields().get("error.object") instanceof Exception);
+  }
+
+  /**
+   * Make sure a batch is traced in one span.
+   */
+  @Test
+  public void batchIsTraced() {
+    List<Object> values = execute(connection -> connection.createBatch()
+        .add("select 1")
+        .add("select 2")
+        .execute())
+        .collectList().block();
+
+    assertEquals(Arrays.asList(1, 2), values);
+    assertEquals(1, tracer.finishedSpans().size());
+    MockSpan span = tracer.finishedSpans().get(0);
+    assertEquals("Batch", span.operationName());
+    assertEquals("select 1; select 2", span.tags().get(Tags.DB_STATEMENT.getKey()));
+  }
+
+  /**
+   * Make sure a pool replaced by the tracing wrapper is still shut down with the context.
+   */
+  @Test
+  public void wrappedConnectionFactoryIsDisposedWithContext() {
+    DisposableConnectionFactory pool = new DisposableConnectionFactory();
+
+    new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(R2dbcTracingAutoConfiguration.class))
+        .withBean(MockTracer.class, MockTracer::new)
+        .withBean(ConnectionFactory.class, () -> pool, definition -> definition.setDestroyMethodName("dispose"))
+        .run(context -> {
+          assertTrue(context.getBean(ConnectionFactory.class) instanceof TracingConnectionFactory);
+          assertFalse(pool.isDisposed());
+        });
+
+    assertTrue(pool.isDisposed());
+  }
+
+  /**
+   * Make sure a pool over a traced connection factory bean is not traced a second time.
+   */
+  @Test
+  public void poolOverTracedConnectionFactoryIsNotWrapped() {
+    new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(R2dbcTracingAutoConfiguration.class))
+        .withBean(MockTracer.class, MockTracer::new)
+        .withUserConfiguration(PoolConfiguration.class)
+        .run(context -> {
+          assertTrue(context.getBean("connectionFactory") instanceof TracingConnectionFactory);
+          ConnectionFactory pool = context.getBean("pool", ConnectionFactory.class);
+          assertTrue(pool instanceof PoolConnectionFactory);
+
+          Mono.from(pool.create())
+              .flatMapMany(connection -> Flux.from(connection.createStatement("select 1").execute())
+                  .flatMap(result -> result.map((row, metadata) -> row.get(0)))
+                  .concatWith(Mono.from(connection.close()).then(Mono.empty())))
+              .blockLast();
+          assertEquals(1, context.getBean(MockTracer.class).finishedSpans().size());
+        });
+  }
+
+  @Configuration
+  static class PoolConfiguration {
+
+    @Bean
+    public ConnectionFactory connectionFactory() {
+      return H2ConnectionFactory.inMemory("r2dbc-pooled");
+    }
+
+    @Bean
+    public PoolConnectionFactory pool(ConnectionFactory connectionFactory) {
+      return new PoolConnectionFactory(connectionFactory);
+    }
+  }
+
+  static class PoolConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory> {
+
+    private final ConnectionFactory delegate;
+
+    PoolConnectionFactory(ConnectionFactory delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+      return delegate.create();
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+      return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+      return delegate;
+    }
+  }
+
+  static class DisposableConnectionFactory implements ConnectionFactory, Disposable {
+
+    private final ConnectionFactory delegate = H2ConnectionFactory.inMemory("r2dbc-disposable");
+    private volatile boolean disposed;
+
+    @Override
+    public Publisher<? extends Connection> create() {
+      return delegate.create();
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+      return delegate.getMetadata();
+    }
+
+    @Override
+    public void dispose() {
+      disposed = true;
+    }
+
+    @Override
+    public boolean isDisposed() {
+      return disposed;
+    }
+  }
+
+  private Flux<Object> execute(Function<Connection, Publisher<? extends Result>> statement) {
+    return Mono.from(connectionFactory.create())
+        .flatMapMany(connection -> Flux.from(statement.apply(connection))
+            .flatMap(result -> result.map((row, metadata) -> row.get(0)))
+            .concatWith(Mono.from(connection.close()).then(Mono.empty())));
+  }
+}
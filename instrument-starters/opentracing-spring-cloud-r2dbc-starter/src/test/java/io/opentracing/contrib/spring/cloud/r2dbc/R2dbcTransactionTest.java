@@ -0,0 +1,188 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.r2dbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.tag.Tags;
+import io.opentracing.util.GlobalTracerTestUtil;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Duration;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@SpringBootTest(classes = {R2dbcTransactionTest.TestConfiguration.class})
+@TestPropertySource(properties = "opentracing.spring.cloud.r2dbc.traceTransactions=true")
+@RunWith(SpringJUnit4ClassRunner.class)
+public class R2dbcTransactionTest {
+
+  @Configuration
+  @EnableAutoConfiguration
+  static class TestConfiguration {
+
+    @Bean
+    public MockTracer mockTracer() {
+      GlobalTracerTestUtil.resetGlobalTracer();
+      return new MockTracer();
+    }
+
+    @Bean
+    public ConnectionFactory connectionFactory() {
+      return H2ConnectionFactory.inMemory("r2dbc-transaction");
+    }
+
+    @Bean
+    public ConnectionReactiveTransactionManager transactionManager(ConnectionFactory connectionFactory) {
+      return new ConnectionReactiveTransactionManager(connectionFactory);
+    }
+  }
+
+  /**
+   * Transaction manager which only begins a transaction on a connection of its own, statements use
+   * other connections, only the transaction lifecycle matters.
+   */
+  static class ConnectionReactiveTransactionManager extends AbstractReactiveTransactionManager {
+
+    private final ConnectionFactory connectionFactory;
+
+    ConnectionReactiveTransactionManager(ConnectionFactory connectionFactory) {
+      this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+      return new Object();
+    }
+
+    @Override
+    protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager,
+        Object transaction, TransactionDefinition definition) {
+      return Mono.from(connectionFactory.create())
+          .flatMap(connection -> Mono.from(connection.beginTransaction())
+              .then(Mono.from(connection.close())));
+    }
+
+    @Override
+    protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+        GenericReactiveTransaction status) {
+      return Mono.empty();
+    }
+
+    @Override
+    protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+        GenericReactiveTransaction status) {
+      return Mono.empty();
+    }
+  }
+
+  @Autowired
+  MockTracer tracer;
+
+  @Autowired
+  ConnectionFactory connectionFactory;
+
+  @Autowired
+  ConnectionReactiveTransactionManager transactionManager;
+
+  @Before
+  public void before() {
+    tracer.reset();
+  }
+
+  /**
+   * Make sure the statements of a committed transaction are children of its span and counted.
+   */
+  @Test
+  public void committedTransactionIsTraced() {
+    DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+    definition.setName("insert");
+
+    TransactionalOperator.create(transactionManager, definition)
+        .transactional(select("select 1").concatWith(select("select 2")))
+        .blockLast();
+
+    List<MockSpan> spans = tracer.finishedSpans();
+    assertEquals(3, spans.size());
+    MockSpan transaction = spans.get(2);
+    assertEquals("transaction", transaction.operationName());
+    assertEquals("spring-tx", transaction.tags().get(Tags.COMPONENT.getKey()));
+    assertEquals("insert", transaction.tags().get("tx.name"));
+    assertEquals("commit", transaction.tags().get("tx.outcome"));
+    assertEquals(2, transaction.tags().get("tx.statements"));
+    assertEquals("DEFAULT", transaction.tags().get("tx.isolation_level"));
+    assertTrue(transaction.tags().containsKey("tx.completion_micros"));
+    assertEquals(transaction.context().spanId(), spans.get(0).parentId());
+    assertEquals(transaction.context().spanId(), spans.get(1).parentId());
+  }
+
+  /**
+   * Make sure the span starts when the transaction begins, not with its first statement.
+   */
+  @Test
+  public void transactionSpanStartsWithTransaction() {
+    TransactionalOperator.create(transactionManager)
+        .transactional(Mono.delay(Duration.ofMillis(20)).thenMany(select("select 1")))
+        .blockLast();
+
+    List<MockSpan> spans = tracer.finishedSpans();
+    assertEquals(2, spans.size());
+    assertTrue(spans.get(0).startMicros() - spans.get(1).startMicros() >= 20_000);
+    assertEquals(false, spans.get(1).tags().get("tx.read_only"));
+  }
+
+  /**
+   * Make sure a transaction rolled back after a failure is traced with its outcome.
+   */
+  @Test
+  public void rolledBackTransactionIsTraced() {
+    TransactionalOperator.create(transactionManager)
+        .transactional(select("select 1").concatWith(Mono.error(new IllegalStateException())))
+        .onErrorResume(error -> Mono.empty())
+        .blockLast();
+
+    List<MockSpan> spans = tracer.finishedSpans();
+    assertEquals(2, spans.size());
+    MockSpan transaction = spans.get(1);
+    assertEquals("rollback", transaction.tags().get("tx.outcome"));
+    assertEquals(1, transaction.tags().get("tx.statements"));
+  }
+
+  private Flux<Object> select(String sql) {
+    return Mono.from(connectionFactory.create())
+        .flatMapMany(connection -> Flux.from(connection.createStatement(sql).execute())
+            .flatMap(result -> result.map((row, metadata) -> row.get(0)))
+            .concatWith(Mono.from(connection.close()).then(Mono.empty())));
+  }
+}
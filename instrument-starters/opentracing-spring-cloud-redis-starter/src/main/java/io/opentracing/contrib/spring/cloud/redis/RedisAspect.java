@@ -16,6 +16,7 @@ package io.opentracing.contrib.spring.cloud.redis;
 import io.opentracing.Tracer;
 import io.opentracing.contrib.redis.common.RedisSpanNameProvider;
 import io.opentracing.contrib.redis.common.TracingConfiguration;
+import io.opentracing.contrib.redis.common.TracingHelper;
 import io.opentracing.contrib.redis.spring.data2.connection.TracingRedisClusterConnection;
 import io.opentracing.contrib.redis.spring.data2.connection.TracingRedisConnection;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -36,13 +37,23 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 @Aspect
 public class RedisAspect {
 
-  private final Tracer tracer;
+  /**
+   * Shared by all the connections, {@code getConnection()} being called for every template
+   * operation.
+   */
+  private final TracingConfiguration tracingConfiguration;
 
-  private final RedisTracingProperties properties;
+  /**
+   * Builds the pipeline spans, {@code null} when every pipelined command gets its own span.
+   */
+  private final TracingHelper pipelineHelper;
 
-  RedisAspect(Tracer tracer, RedisTracingProperties properties) {
-    this.tracer = tracer;
-    this.properties = properties;
+  public RedisAspect(Tracer tracer, RedisTracingProperties properties) {
+    this.tracingConfiguration = new TracingConfiguration.Builder(tracer)
+        .withSpanNameProvider(RedisSpanNameProvider.PREFIX_OPERATION_NAME(properties.getPrefixOperationName()))
+        .build();
+    this.pipelineHelper = properties.isAggregatePipelines()
+        ? new TracingHelper(tracingConfiguration) : null;
   }
 
   @Pointcut("target(org.springframework.data.redis.connection.RedisConnectionFactory)")
@@ -59,18 +70,18 @@ public class RedisAspect {
    * outcome in a {@link TracingRedisConnection}
    *
    * @param pjp the intercepted join point
-   * @return a new {@link TracingRedisConnection} wrapping the result of the joint point
+   * @return a new {@link TracingRedisConnection} wrapping the result of the joint point, reporting
+   *     pipelines and transactions in one span when enabled
    */
   @Around("getConnection() && connectionFactory()")
   public Object aroundGetConnection(final ProceedingJoinPoint pjp) throws Throwable {
     final RedisConnection connection = (RedisConnection) pjp.proceed();
 
-    final String prefixOperationName = this.properties.getPrefixOperationName();
-    final TracingConfiguration tracingConfiguration = new TracingConfiguration.Builder(tracer)
-        .withSpanNameProvider(RedisSpanNameProvider.PREFIX_OPERATION_NAME(prefixOperationName))
-        .build();
-
-    return new TracingRedisConnection(connection, tracingConfiguration);
+    final RedisConnection tracingConnection = new TracingRedisConnection(connection, tracingConfiguration);
+    if (pipelineHelper == null) {
+      return tracingConnection;
+    }
+    return PipelineTracing.wrap(tracingConnection, connection, pipelineHelper);
   }
 
   /**
@@ -78,17 +89,13 @@ public class RedisAspect {
    * wrapping the outcome in a {@link TracingRedisClusterConnection}
    *
    * @param pjp the intercepted join point
-   * @return a new {@link TracingRedisClusterConnection} wrapping the result of the joint point
+   * @return a new {@link TracingRedisClusterConnection} wrapping the result of the joint point,
+   *     pipelines and transactions are not aggregated
    */
   @Around("getClusterConnection() && connectionFactory()")
   public Object aroundGetClusterConnection(final ProceedingJoinPoint pjp) throws Throwable {
     final RedisClusterConnection clusterConnection = (RedisClusterConnection) pjp.proceed();
 
-    final String prefixOperationName = this.properties.getPrefixOperationName();
-    final TracingConfiguration tracingConfiguration = new TracingConfiguration.Builder(tracer)
-        .withSpanNameProvider(RedisSpanNameProvider.PREFIX_OPERATION_NAME(prefixOperationName))
-        .build();
-
     return new TracingRedisClusterConnection(clusterConnection, tracingConfiguration);
   }
 
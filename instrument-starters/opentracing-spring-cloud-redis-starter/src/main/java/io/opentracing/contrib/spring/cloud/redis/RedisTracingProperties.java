@@ -26,6 +26,8 @@ public class RedisTracingProperties {
 
   private String prefixOperationName;
 
+  private boolean aggregatePipelines = true;
+
   public boolean isEnabled() {
     return enabled;
   }
@@ -42,4 +44,12 @@ public class RedisTracingProperties {
     this.prefixOperationName = prefixOperationName;
   }
 
+  public boolean isAggregatePipelines() {
+    return aggregatePipelines;
+  }
+
+  public void setAggregatePipelines(boolean aggregatePipelines) {
+    this.aggregatePipelines = aggregatePipelines;
+  }
+
 }
@@ -36,13 +36,18 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 /**
  * @author Daniel del Castillo
  */
 @SpringBootTest(classes = {IntegrationTest.IntegrationTestConfiguration.class})
+@TestPropertySource(properties = "opentracing.spring.cloud.redis.aggregatePipelines=true")
 @RunWith(SpringJUnit4ClassRunner.class)
 public class IntegrationTest {
 
@@ -120,6 +125,72 @@ public class IntegrationTest {
     assertEquals(redisSpan.get().parentId(), parentSpan.get().context().spanId());
   }
 
+  @Test
+  public void pipelineCreatesOneSpan() {
+    redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      for (long key = 0; key < 10; key++) {
+        connection.set(String.valueOf(key).getBytes(), "value".getBytes());
+      }
+      connection.del("0".getBytes());
+      return null;
+    });
+
+    assertEquals(1, tracer.finishedSpans().size());
+    MockSpan span = tracer.finishedSpans().get(0);
+    assertEquals("PIPELINE", span.operationName());
+    assertEquals("java-redis", span.tags().get(Tags.COMPONENT.getKey()));
+    assertEquals(11, span.tags().get("redis.commands"));
+    assertEquals("SET=10,DEL=1", span.tags().get("redis.command_histogram"));
+  }
+
+  @Test
+  public void pipelineCountsCommandsOfAccessors() {
+    redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      connection.stringCommands().set("key".getBytes(), "value".getBytes());
+      connection.keyCommands().del("key".getBytes());
+      connection.isSubscribed();
+      return null;
+    });
+
+    assertEquals(1, tracer.finishedSpans().size());
+    MockSpan span = tracer.finishedSpans().get(0);
+    assertEquals(2, span.tags().get("redis.commands"));
+    assertEquals("SET=1,DEL=1", span.tags().get("redis.command_histogram"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void transactionCreatesOneSpan() {
+    redisTemplate.execute(new SessionCallback<Object>() {
+      @Override
+      public Object execute(RedisOperations operations) {
+        operations.multi();
+        operations.opsForValue().set("key", "value");
+        operations.opsForValue().set("other-key", "value");
+        return operations.exec();
+      }
+    });
+
+    assertEquals(1, tracer.finishedSpans().size());
+    MockSpan span = tracer.finishedSpans().get(0);
+    assertEquals("MULTI", span.operationName());
+    assertEquals(2, span.tags().get("redis.commands"));
+    assertEquals("SET=2", span.tags().get("redis.command_histogram"));
+  }
+
+  @Test
+  public void commandAfterPipelineCreatesNewSpan() {
+    redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      connection.set("key".getBytes(), "value".getBytes());
+      return null;
+    });
+    redisTemplate.opsForValue().get("key");
+
+    assertEquals(2, tracer.finishedSpans().size());
+    assertEquals("PIPELINE", tracer.finishedSpans().get(0).operationName());
+    assertEquals("GET", tracer.finishedSpans().get(1).operationName());
+  }
+
   // Cluster operations can be tested once https://github.com/kstyrc/embedded-redis/issues/79 is fixed
 
 }
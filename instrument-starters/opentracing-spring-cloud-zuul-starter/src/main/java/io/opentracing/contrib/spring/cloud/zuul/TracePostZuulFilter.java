@@ -18,14 +18,23 @@ import static org.springframework.cloud.netflix.zuul.filters.support.FilterConst
 import com.netflix.zuul.ZuulFilter;
 import com.netflix.zuul.context.RequestContext;
 import io.opentracing.Span;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
 import io.opentracing.tag.Tags;
-import java.util.HashMap;
-import java.util.Map;
 
 public class TracePostZuulFilter extends ZuulFilter {
 
   static final String ROUTE_HOST_TAG = "route.host";
 
+  private final ErrorCapture errorCapture;
+
+  public TracePostZuulFilter() {
+    this(ErrorCapture.noDeduplication());
+  }
+
+  public TracePostZuulFilter(ErrorCapture errorCapture) {
+    this.errorCapture = errorCapture;
+  }
+
   @Override
   public String filterType() {
     return POST_TYPE;
@@ -69,18 +78,11 @@ public class TracePostZuulFilter extends ZuulFilter {
     return null;
   }
 
-  private static void onError(Throwable throwable, Span span) {
+  private void onError(Throwable throwable, Span span) {
     Tags.ERROR.set(span, Boolean.TRUE);
 
     if (throwable != null) {
-      span.log(errorLogs(throwable));
+      span.log(errorCapture.errorLogs(throwable));
     }
   }
-
-  private static Map<String, Object> errorLogs(Throwable throwable) {
-    Map<String, Object> errorLogs = new HashMap<>(2);
-    errorLogs.put("event", Tags.ERROR.getKey());
-    errorLogs.put("error.object", throwable);
-    return errorLogs;
-  }
 }
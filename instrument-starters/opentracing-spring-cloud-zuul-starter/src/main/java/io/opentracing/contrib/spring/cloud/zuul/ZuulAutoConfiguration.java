@@ -15,7 +15,9 @@ package io.opentracing.contrib.spring.cloud.zuul;
 
 import com.netflix.zuul.ZuulFilter;
 import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.error.ErrorCapture;
 import io.opentracing.contrib.spring.tracer.configuration.TracerAutoConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -41,8 +43,8 @@ public class ZuulAutoConfiguration {
 
   @Bean
   @ConditionalOnMissingBean
-  public TracePostZuulFilter tracePostZuulFilter() {
-    return new TracePostZuulFilter();
+  public TracePostZuulFilter tracePostZuulFilter(ObjectProvider<ErrorCapture> errorCapture) {
+    return new TracePostZuulFilter(errorCapture.getIfAvailable(ErrorCapture::noDeduplication));
   }
 
 }
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.async;
+
+import io.opentracing.Scope;
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.benchmarks.BenchmarkTracers;
+import io.opentracing.contrib.spring.cloud.benchmarks.DirectExecutors.DirectExecutor;
+import io.opentracing.contrib.spring.cloud.benchmarks.DirectExecutors.DirectExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures executor beans proxied by {@link ExecutorBeanPostProcessor}, i.e. dispatch through
+ * {@link ExecutorMethodInterceptor}. It lives in the instrumentation package because both classes
+ * are package private.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutorMethodInterceptorBenchmark {
+
+  @Param({BenchmarkTracers.MOCK, BenchmarkTracers.NOOP})
+  public String tracer;
+
+  @Param({"true", "false"})
+  public boolean activeSpan;
+
+  private final Runnable runnable = () -> { };
+  private final Callable<String> callable = () -> "benchmark";
+
+  private Executor executor;
+  private Executor tracedExecutor;
+  private ExecutorService executorService;
+  private ExecutorService tracedExecutorService;
+  private Span parent;
+  private Scope scope;
+
+  @Setup
+  public void setup() {
+    Tracer tracer = BenchmarkTracers.create(this.tracer);
+    ExecutorBeanPostProcessor postProcessor = new ExecutorBeanPostProcessor(tracer);
+    executor = new DirectExecutor();
+    tracedExecutor = (Executor) postProcessor
+        .postProcessAfterInitialization(new DirectExecutor(), "executor");
+    executorService = new DirectExecutorService();
+    tracedExecutorService = (ExecutorService) postProcessor
+        .postProcessAfterInitialization(new DirectExecutorService(), "executorService");
+    if (activeSpan) {
+      parent = tracer.buildSpan("parent").start();
+      scope = tracer.activateSpan(parent);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (scope != null) {
+      scope.close();
+      parent.finish();
+    }
+  }
+
+  @Benchmark
+  public void executeBaseline() {
+    executor.execute(runnable);
+  }
+
+  @Benchmark
+  public void executeTraced() {
+    tracedExecutor.execute(runnable);
+  }
+
+  @Benchmark
+  public Future<String> submitBaseline() {
+    return executorService.submit(callable);
+  }
+
+  @Benchmark
+  public Future<String> submitTraced() {
+    return tracedExecutorService.submit(callable);
+  }
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.benchmarks;
+
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * Creates the same class based proxies as Spring AOP does for aspect beans in an application
+ * context.
+ */
+public final class BenchmarkProxies {
+
+  private BenchmarkProxies() {
+  }
+
+  public static <T> T proxy(T target, Object aspect) {
+    AspectJProxyFactory factory = new AspectJProxyFactory(target);
+    factory.setProxyTargetClass(true);
+    factory.addAspect(aspect);
+    return factory.getProxy();
+  }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.benchmarks;
+
+import io.opentracing.Tracer;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.noop.NoopTracerFactory;
+
+/**
+ * Tracers the benchmarks are parametrized with.
+ */
+public final class BenchmarkTracers {
+
+  public static final String MOCK = "mock";
+  public static final String NOOP = "noop";
+
+  private BenchmarkTracers() {
+  }
+
+  public static Tracer create(String name) {
+    if (MOCK.equals(name)) {
+      return new NonRetainingMockTracer();
+    } else if (NOOP.equals(name)) {
+      return NoopTracerFactory.create();
+    }
+    throw new IllegalArgumentException("Unknown tracer: " + name);
+  }
+
+  /**
+   * {@link MockTracer} which does not keep finished spans, otherwise a single measurement iteration
+   * would fill the heap.
+   */
+  static class NonRetainingMockTracer extends MockTracer {
+
+    @Override
+    protected void onSpanFinished(MockSpan mockSpan) {
+      reset();
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.benchmarks;
+
+import io.opentracing.contrib.spring.cloud.redis.RedisAspect;
+import io.opentracing.contrib.spring.cloud.redis.RedisTracingProperties;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+
+/**
+ * Connections are taken from a factory whose connections do nothing, as {@code RedisTemplate} does
+ * for every operation, so that only the cost of the instrumentation is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisPipelineBenchmark {
+
+  private static final byte[] KEY = "key".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] VALUE = "value".getBytes(StandardCharsets.UTF_8);
+
+  @Param({BenchmarkTracers.MOCK, BenchmarkTracers.NOOP})
+  public String tracer;
+
+  @Param({"true", "false"})
+  public boolean aggregatePipelines;
+
+  @Param({"100"})
+  public int pipelineSize;
+
+  private RedisConnectionFactory connectionFactory;
+  private RedisConnectionFactory tracedConnectionFactory;
+
+  @Setup
+  public void setup() {
+    RedisTracingProperties properties = new RedisTracingProperties();
+    properties.setAggregatePipelines(aggregatePipelines);
+    connectionFactory = new NoopRedisConnectionFactory();
+    tracedConnectionFactory = BenchmarkProxies.proxy(connectionFactory,
+        new RedisAspect(BenchmarkTracers.create(tracer), properties));
+  }
+
+  @Benchmark
+  public byte[] commandBaseline() {
+    return command(connectionFactory);
+  }
+
+  @Benchmark
+  public byte[] commandTraced() {
+    return command(tracedConnectionFactory);
+  }
+
+  @Benchmark
+  public List<Object> pipelineBaseline() {
+    return pipeline(connectionFactory);
+  }
+
+  @Benchmark
+  public List<Object> pipelineTraced() {
+    return pipeline(tracedConnectionFactory);
+  }
+
+  private static byte[] command(RedisConnectionFactory connectionFactory) {
+    RedisConnection connection = connectionFactory.getConnection();
+    try {
+      return connection.get(KEY);
+    } finally {
+      connection.close();
+    }
+  }
+
+  private List<Object> pipeline(RedisConnectionFactory connectionFactory) {
+    RedisConnection connection = connectionFactory.getConnection();
+    try {
+      connection.openPipeline();
+      for (int i = 0; i < pipelineSize; i++) {
+        connection.set(KEY, VALUE);
+      }
+      return connection.closePipeline();
+    } finally {
+      connection.close();
+    }
+  }
+
+  public static class NoopRedisConnectionFactory implements RedisConnectionFactory {
+
+    private final RedisConnection connection = (RedisConnection) Proxy.newProxyInstance(
+        RedisPipelineBenchmark.class.getClassLoader(), new Class<?>[] {RedisConnection.class},
+        (proxy, method, args) -> {
+          Class<?> type = method.getReturnType();
+          if (type == boolean.class) {
+            return false;
+          } else if (type == long.class) {
+            return 0L;
+          } else if (type == int.class) {
+            return 0;
+          }
+          return null;
+        });
+
+    @Override
+    public RedisConnection getConnection() {
+      return connection;
+    }
+
+    @Override
+    public RedisClusterConnection getClusterConnection() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean getConvertPipelineAndTxResults() {
+      return false;
+    }
+
+    @Override
+    public RedisSentinelConnection getSentinelConnection() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public DataAccessException translateExceptionIfPossible(RuntimeException ex) {
+      return null;
+    }
+  }
+}
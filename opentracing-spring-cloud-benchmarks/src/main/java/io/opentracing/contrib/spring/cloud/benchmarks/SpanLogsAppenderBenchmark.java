@@ -0,0 +1,112 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import io.opentracing.Scope;
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.log.SpanLogsAppender;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link SpanLogsAppender}. Every operation starts and finishes its own span, otherwise
+ * logs would pile up in a single long lived span; the baseline does the same without appending.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpanLogsAppenderBenchmark {
+
+  private static final String FQCN = SpanLogsAppenderBenchmark.class.getName();
+  private static final Object[] ARGUMENTS = {42, "benchmark"};
+
+  @Param({BenchmarkTracers.MOCK, BenchmarkTracers.NOOP})
+  public String tracer;
+
+  /**
+   * {@code 0} attaches logs on the logging thread, otherwise the capacity of the asynchronous
+   * buffer.
+   */
+  @Param({"0", "8192"})
+  public int asyncBufferSize;
+
+  private Tracer spanTracer;
+  private Logger logger;
+  private SpanLogsAppender appender;
+
+  @Setup
+  public void setup() {
+    spanTracer = BenchmarkTracers.create(tracer);
+    logger = new LoggerContext().getLogger(SpanLogsAppenderBenchmark.class);
+    appender = new SpanLogsAppender(spanTracer, asyncBufferSize);
+    appender.start();
+  }
+
+  @TearDown
+  public void tearDown() {
+    appender.stop();
+  }
+
+  @Benchmark
+  public LoggingEvent baseline() {
+    LoggingEvent event = newEvent();
+    Span span = spanTracer.buildSpan("log").start();
+    try (Scope scope = spanTracer.activateSpan(span)) {
+      return event;
+    } finally {
+      span.finish();
+    }
+  }
+
+  @Benchmark
+  public LoggingEvent append() {
+    LoggingEvent event = newEvent();
+    Span span = spanTracer.buildSpan("log").start();
+    try (Scope scope = spanTracer.activateSpan(span)) {
+      appender.doAppend(event);
+      return event;
+    } finally {
+      span.finish();
+    }
+  }
+
+  @Benchmark
+  public LoggingEvent appendWithoutActiveSpan() {
+    LoggingEvent event = newEvent();
+    appender.doAppend(event);
+    return event;
+  }
+
+  private LoggingEvent newEvent() {
+    return new LoggingEvent(FQCN, logger, Level.INFO, "Processed order {} for {}", null, ARGUMENTS);
+  }
+}
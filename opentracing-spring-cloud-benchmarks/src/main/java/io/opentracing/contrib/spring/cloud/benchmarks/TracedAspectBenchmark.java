@@ -0,0 +1,73 @@
+/**
+ * Copyright 2017-2026 The OpenTracing Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.opentracing.contrib.spring.cloud.benchmarks;
+
+import io.opentracing.contrib.spring.cloud.aop.MethodInterceptorSpanDecorator;
+import io.opentracing.contrib.spring.cloud.aop.Traced;
+import io.opentracing.contrib.spring.cloud.traced.TracedAspect;
+import io.opentracing.contrib.spring.cloud.traced.TracedTracingProperties;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TracedAspectBenchmark {
+
+  @Param({BenchmarkTracers.MOCK, BenchmarkTracers.NOOP})
+  public String tracer;
+
+  private TracedService service;
+  private TracedService tracedService;
+
+  @Setup
+  public void setup() {
+    service = new TracedService();
+    tracedService = BenchmarkProxies.proxy(service,
+        new TracedAspect(BenchmarkTracers.create(tracer), new TracedTracingProperties(),
+            Collections.singletonList(new MethodInterceptorSpanDecorator.StandardTags())));
+  }
+
+  @Benchmark
+  public String baseline() {
+    return service.call("benchmark");
+  }
+
+  @Benchmark
+  public String traced() {
+    return tracedService.call("benchmark");
+  }
+
+  public static class TracedService {
+
+    @Traced
+    public String call(String argument) {
+      return argument;
+    }
+  }
+}